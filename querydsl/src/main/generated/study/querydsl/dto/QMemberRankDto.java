@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.types.dsl.*;
+
+import com.querydsl.core.types.ConstructorExpression;
+import javax.annotation.processing.Generated;
+
+/**
+ * study.querydsl.dto.QMemberRankDto is a Querydsl Projection type for MemberRankDto
+ */
+@Generated("com.querydsl.codegen.DefaultProjectionSerializer")
+public class QMemberRankDto extends ConstructorExpression<MemberRankDto> {
+
+    private static final long serialVersionUID = -497995338L;
+
+    public QMemberRankDto(com.querydsl.core.types.Expression<Long> memberId, com.querydsl.core.types.Expression<String> username, com.querydsl.core.types.Expression<Integer> age, com.querydsl.core.types.Expression<Integer> ageRank, com.querydsl.core.types.Expression<Long> teamId, com.querydsl.core.types.Expression<String> teamName) {
+        super(MemberRankDto.class, new Class<?>[]{long.class, String.class, int.class, int.class, long.class, String.class}, memberId, username, age, ageRank, teamId, teamName);
+    }
+
+}
+
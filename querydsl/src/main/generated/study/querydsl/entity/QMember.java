@@ -24,12 +24,16 @@ public class QMember extends EntityPathBase<Member> {
 
     public final NumberPath<Integer> age = createNumber("age", Integer.class);
 
+    public final NumberPath<Integer> ageRank = createNumber("ageRank", Integer.class);
+
     public final NumberPath<Long> id = createNumber("id", Long.class);
 
     public final QTeam team;
 
     public final StringPath username = createString("username");
 
+    public final StringPath usernameLower = createString("usernameLower");
+
     public QMember(String variable) {
         this(Member.class, forVariable(variable), INITS);
     }
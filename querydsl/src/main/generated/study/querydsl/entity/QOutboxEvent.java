@@ -0,0 +1,47 @@
+package study.querydsl.entity;
+
+import static com.querydsl.core.types.PathMetadataFactory.*;
+
+import com.querydsl.core.types.dsl.*;
+
+import com.querydsl.core.types.PathMetadata;
+import javax.annotation.processing.Generated;
+import com.querydsl.core.types.Path;
+
+
+/**
+ * QOutboxEvent is a Querydsl query type for OutboxEvent
+ */
+@Generated("com.querydsl.codegen.DefaultEntitySerializer")
+public class QOutboxEvent extends EntityPathBase<OutboxEvent> {
+
+    private static final long serialVersionUID = 1577402150L;
+
+    public static final QOutboxEvent outboxEvent = new QOutboxEvent("outboxEvent");
+
+    public final NumberPath<Long> aggregateId = createNumber("aggregateId", Long.class);
+
+    public final StringPath aggregateType = createString("aggregateType");
+
+    public final DateTimePath<java.time.LocalDateTime> createdAt = createDateTime("createdAt", java.time.LocalDateTime.class);
+
+    public final EnumPath<OutboxEvent.Type> eventType = createEnum("eventType", OutboxEvent.Type.class);
+
+    public final NumberPath<Long> id = createNumber("id", Long.class);
+
+    public final StringPath payload = createString("payload");
+
+    public QOutboxEvent(String variable) {
+        super(OutboxEvent.class, forVariable(variable));
+    }
+
+    public QOutboxEvent(Path<? extends OutboxEvent> path) {
+        super(path.getType(), path.getMetadata());
+    }
+
+    public QOutboxEvent(PathMetadata metadata) {
+        super(OutboxEvent.class, metadata);
+    }
+
+}
+
@@ -0,0 +1,39 @@
+package study.querydsl.entity;
+
+import static com.querydsl.core.types.PathMetadataFactory.*;
+
+import com.querydsl.core.types.dsl.*;
+
+import com.querydsl.core.types.PathMetadata;
+import javax.annotation.processing.Generated;
+import com.querydsl.core.types.Path;
+
+
+/**
+ * QTableVersionRow is a Querydsl query type for TableVersionRow
+ */
+@Generated("com.querydsl.codegen.DefaultEntitySerializer")
+public class QTableVersionRow extends EntityPathBase<TableVersionRow> {
+
+    private static final long serialVersionUID = 1936296473L;
+
+    public static final QTableVersionRow tableVersionRow = new QTableVersionRow("tableVersionRow");
+
+    public final StringPath name = createString("name");
+
+    public final NumberPath<Long> version = createNumber("version", Long.class);
+
+    public QTableVersionRow(String variable) {
+        super(TableVersionRow.class, forVariable(variable));
+    }
+
+    public QTableVersionRow(Path<? extends TableVersionRow> path) {
+        super(path.getType(), path.getMetadata());
+    }
+
+    public QTableVersionRow(PathMetadata metadata) {
+        super(TableVersionRow.class, metadata);
+    }
+
+}
+
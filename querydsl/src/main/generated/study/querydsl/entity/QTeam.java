@@ -22,7 +22,7 @@ public class QTeam extends EntityPathBase<Team> {
 
     public final NumberPath<Long> id = createNumber("id", Long.class);
 
-    public final ListPath<Member, SimplePath<Member>> members = this.<Member, SimplePath<Member>>createList("members", Member.class, SimplePath.class, PathInits.DIRECT2);
+    public final ListPath<Member, QMember> members = this.<Member, QMember>createList("members", Member.class, QMember.class, PathInits.DIRECT2);
 
     public final StringPath name = createString("name");
 
@@ -2,12 +2,21 @@ package study.querydsl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class QuerydslApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(QuerydslApplication.class, args);
+    ConfigurableApplicationContext context = SpringApplication.run(QuerydslApplication.class, args);
+    // CDS 학습 실행(./gradlew cdsArchive): 시작만 하고 종료한다. 부트 3.2 이상은 이 코드 없이 같은 프로퍼티로 동작
+    if ("onRefresh".equals(System.getProperty("spring.context.exit"))) {
+      System.exit(SpringApplication.exit(context));
+    }
   }
 
 }
@@ -0,0 +1,69 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 회원 조회 API 동시 실행 수 제한 설정.
+ * max-limit을 정하지 않으면 커넥션 풀 크기(spring.datasource.hikari.maximum-pool-size, 기본 10) * pool-share로 잡는다.
+ * 기본 비율은 두 예산을 합쳐도 풀 크기를 넘지 않게 나눈 값이다. (풀 10개면 cheap 6, expensive 4)
+ * initial-limit을 정하지 않으면 max-limit에서 시작한다.
+ *
+ * <pre>
+ * member:
+ *   concurrency-limit:
+ *     expensive:
+ *       pool-share: 0.3
+ *       latency-threshold: 300ms
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.concurrency-limit")
+public class MemberConcurrencyLimitProperties {
+
+  private boolean enabled = true;
+  private Duration retryAfter = Duration.ofSeconds(1);
+
+  // 단건/키셋 조회
+  private Budget cheap = new Budget(List.of("/v1/members", "/ranked/members"), 0.6,
+      Duration.ofMillis(200));
+
+  // 페이지 + 카운트 쿼리. 커넥션을 오래 잡으므로 비율을 작게 둔다.
+  private Budget expensive = new Budget(List.of("/v2/members", "/v3/members", "/v4/members"), 0.4,
+      Duration.ofMillis(500));
+
+  @Getter
+  @Setter
+  public static class Budget {
+
+    private List<String> paths;
+    private int initialLimit; // 0이면 maxLimit
+    private int minLimit = 1;
+    private int maxLimit; // 0이면 커넥션 풀 크기 * poolShare
+    private double poolShare;
+    private Duration latencyThreshold;
+    private double backoffRatio = 0.9;
+
+    public Budget() {
+    }
+
+    Budget(List<String> paths, double poolShare, Duration latencyThreshold) {
+      this.paths = paths;
+      this.poolShare = poolShare;
+      this.latencyThreshold = latencyThreshold;
+    }
+
+    public int maxLimitFor(int poolSize) {
+      return maxLimit > 0 ? maxLimit : Math.max(minLimit, (int) (poolSize * poolShare));
+    }
+
+    public int initialLimitFor(int poolSize) {
+      int max = maxLimitFor(poolSize);
+      return initialLimit > 0 ? Math.min(initialLimit, max) : max;
+    }
+  }
+}
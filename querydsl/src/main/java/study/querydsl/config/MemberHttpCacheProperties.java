@@ -0,0 +1,32 @@
+package study.querydsl.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 회원 조회 API HTTP 캐시 설정.
+ *
+ * <pre>
+ * member:
+ *   http-cache:
+ *     cache-control:
+ *       "[/v1/members]": max-age=10, private
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.http-cache")
+public class MemberHttpCacheProperties {
+
+  private boolean enabled = true;
+
+  // 엔드포인트별 Cache-Control 값. 없으면 no-cache (매번 ETag로 재검증)
+  private Map<String, String> cacheControl = new LinkedHashMap<>();
+
+  public String cacheControlFor(String path) {
+    return cacheControl.getOrDefault(path, "no-cache");
+  }
+}
@@ -0,0 +1,118 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import study.querydsl.datasource.ReplicaRoutingDataSource;
+
+/**
+ * member.datasource.routing.enabled=true 일 때 primary + replica 라우팅 DataSource를 등록한다.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "member.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+  private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+  // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부로 라우팅할 수 있다.
+  // p6spy는 getConnection()에서 메타데이터를 읽느라 커넥션을 바로 얻으므로, 지연 프록시는 p6spy 바깥에 씌운다.
+  // (LazyConnectionPostProcessor)
+  @Bean
+  @Primary
+  public DataSource dataSource(DataSourceProperties dataSourceProperties,
+      ReplicaRoutingProperties properties, Environment environment) {
+    // 지연을 측정하지 않으면 replica가 얼마나 늦을지 알 수 없어서 ETag 생략 구간(staleReadWindow)을 정할 수 없다
+    if (properties.getLagQuery() == null || properties.getMaxLag() == null) {
+      throw new IllegalStateException(
+          "member.datasource.routing.lag-query와 max-lag를 설정해야 합니다.");
+    }
+    // 부트 자동 설정처럼 spring.datasource.hikari.* (풀 크기, 타임아웃 등)를 적용한다. 이름과 readOnly는 아래에서 정한다.
+    Binder binder = Binder.get(environment);
+    HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+    primary.setPoolName("primary");
+
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    List<ReplicaRoutingProperties.Replica> replicaProperties = properties.getReplicas();
+    for (int i = 0; i < replicaProperties.size(); i++) {
+      ReplicaRoutingProperties.Replica replica = replicaProperties.get(i);
+      HikariDataSource dataSource = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .url(replica.getUrl())
+          .username(replica.getUsername())
+          .password(replica.getPassword())
+          .build();
+      binder.bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+      binder.bind("member.datasource.routing.replicas[" + i + "].hikari",
+          Bindable.ofInstance(dataSource));
+      dataSource.setPoolName("replica" + i);
+      dataSource.setReadOnly(true);
+      replicas.put(dataSource.getPoolName(), dataSource);
+    }
+
+    return new ReplicaRoutingDataSource(primary, replicas, properties.getSelection(),
+        properties.getLagQuery(), properties.getMaxLag(), properties.isFallbackToPrimary(),
+        properties.getReadYourWritesWindow());
+  }
+
+  @Bean
+  public static LazyConnectionPostProcessor lazyConnectionPostProcessor() {
+    return new LazyConnectionPostProcessor();
+  }
+
+  @Bean
+  public ReplicaChecker replicaChecker(DataSource dataSource) throws SQLException {
+    return new ReplicaChecker(dataSource.unwrap(ReplicaRoutingDataSource.class));
+  }
+
+  // DataSource 데코레이터(p6spy)까지 적용된 뒤에 감싸도록 가장 나중에 실행한다.
+  static class LazyConnectionPostProcessor implements BeanPostProcessor, Ordered {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+        return new LazyConnectionDataSourceProxy(dataSource);
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+
+  static class ReplicaChecker {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    ReplicaChecker(ReplicaRoutingDataSource replicaRoutingDataSource) {
+      this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${member.datasource.routing.check-interval:PT5S}")
+    public void check() {
+      replicaRoutingDataSource.checkReplicas();
+    }
+  }
+}
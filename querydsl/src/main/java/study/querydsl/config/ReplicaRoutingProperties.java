@@ -0,0 +1,61 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import study.querydsl.datasource.ReplicaRoutingDataSource.Selection;
+
+/**
+ * 읽기 replica 라우팅 설정. primary는 spring.datasource.* 를 그대로 사용한다.
+ * 커넥션 풀은 primary, replica 모두 spring.datasource.hikari.* 를 따르고, replica별로 hikari.* 로 덮어쓸 수 있다.
+ *
+ * <pre>
+ * member:
+ *   datasource:
+ *     routing:
+ *       enabled: true
+ *       selection: least-latency
+ *       max-lag: 2s
+ *       lag-query: select timestampdiff(second, ts, now()) from heartbeat
+ *       replicas:
+ *         - url: jdbc:mysql://replica1:3306/querydsl
+ *           username: reader
+ *           password: ...
+ *           hikari:
+ *             maximum-pool-size: 30
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.datasource.routing")
+public class ReplicaRoutingProperties {
+
+  private boolean enabled;
+  private List<Replica> replicas = new ArrayList<>();
+  private Selection selection = Selection.ROUND_ROBIN;
+  private String lagQuery; // 지연 시간(초)을 반환하는 쿼리. 필수
+  private Duration maxLag; // 이보다 지연된 replica는 제외. 필수
+  private boolean fallbackToPrimary = true; // 사용할 replica가 없을 때
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+  private Duration checkInterval = Duration.ofSeconds(5);
+
+  /**
+   * replica에서 읽은 데이터가 primary보다 늦을 수 있는 최대 시간.
+   * 지연은 checkInterval마다 확인하므로 확인 직후 maxLag 이내였던 replica도 다음 확인까지 그만큼 더 밀릴 수 있다.
+   */
+  public Duration staleReadWindow() {
+    return maxLag.plus(checkInterval);
+  }
+
+  @Getter
+  @Setter
+  public static class Replica {
+
+    private String url;
+    private String username;
+    private String password;
+  }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * virtual 프로필: 톰캣 요청 처리와 @Async 작업을 가상 스레드에서 실행한다. (자바 21 이상에서 실행)
+ * 요청 스레드 수 제한이 없어지므로 동시 쿼리 수는 커넥션 풀 크기가 결정한다. application-virtual.yml 참고.
+ */
+@Profile("virtual")
+@Configuration
+public class VirtualThreadConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    return protocolHandler -> protocolHandler.setExecutor(executor);
+  }
+
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+  }
+
+  @Bean
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor() {
+    return new VirtualThreadPinningMonitor();
+  }
+
+  // 아무도 주입받지 않으므로 lazy 프로필에서는 만들어지지 않는다
+  @Bean
+  public static LazyInitializationExcludeFilter virtualThreadPinningMonitorExcludeFilter() {
+    return LazyInitializationExcludeFilter.forBeanTypes(VirtualThreadPinningMonitor.class);
+  }
+
+  // 자바 17로 컴파일하기 때문에 리플렉션으로 호출
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("virtual 프로필은 자바 21 이상에서 실행해야 합니다.", e);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * 가상 스레드 피닝 감지. synchronized 블록 안에서 JDBC I/O를 기다리면(드라이버, 하이버네이트 일부 경로)
+ * 가상 스레드가 캐리어 스레드를 붙잡게 되는데, JFR jdk.VirtualThreadPinned 이벤트로 이를 로그에 남긴다.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int MAX_FRAMES = 8;
+
+  private final LongAdder pinnedCount = new LongAdder();
+  private RecordingStream stream;
+
+  @Override
+  public void afterPropertiesSet() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(20)).withStackTrace();
+    stream.onEvent(PINNED_EVENT, event -> {
+      pinnedCount.increment();
+      log.warn("virtual thread pinned for {}ms\n{}", event.getDuration().toMillis(),
+          format(event.getStackTrace()));
+    });
+    stream.startAsync();
+  }
+
+  public long getPinnedCount() {
+    return pinnedCount.sum();
+  }
+
+  @Override
+  public void destroy() {
+    stream.close();
+  }
+
+  private String format(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder();
+    for (RecordedFrame frame : stackTrace.getFrames().subList(0,
+        Math.min(MAX_FRAMES, stackTrace.getFrames().size()))) {
+      sb.append("\tat ").append(frame.getMethod().getType().getName()).append('.')
+          .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber())
+          .append('\n');
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.querydsl.web.ConcurrencyLimitInterceptor;
+import study.querydsl.web.MemberETagInterceptor;
+import study.querydsl.web.ReadYourWritesInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({MemberHttpCacheProperties.class,
+    MemberConcurrencyLimitProperties.class})
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final MemberETagInterceptor memberETagInterceptor;
+  private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+  private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(memberETagInterceptor)
+        .addPathPatterns("/v1/members", "/v2/members", "/v3/members", "/v4/members");
+    // ETag로 304 응답하는 요청은 제한하지 않도록 뒤에 등록
+    registry.addInterceptor(concurrencyLimitInterceptor);
+    registry.addInterceptor(readYourWritesInterceptor);
+  }
+}
@@ -4,13 +4,17 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberRankDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchCoalescer;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,6 +22,7 @@ public class MemberController {
 
   private final MemberJpaRepository memberJpaRepository;
   private final MemberRepository memberRepository;
+  private final MemberSearchCoalescer memberSearchCoalescer;
 
   @GetMapping("/v1/members")
   public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
@@ -26,14 +31,21 @@ public class MemberController {
 
   @GetMapping("/v2/members")
   public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-    return memberRepository.searchPageSimple(condition, pageable);
+    return memberSearchCoalescer.searchPageSimple(condition, pageable);
 
   }
 
   @GetMapping("/v3/members")
   public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-    return memberRepository.searchPageComplex(condition, pageable);
+    return memberSearchCoalescer.searchPageComplex(condition, pageable);
 
   }
 
+  @GetMapping("/ranked/members")
+  public Slice<MemberRankDto> searchRankedMember(MemberSearchCondition condition,
+      @RequestParam(required = false) Integer lastAgeRank,
+      @RequestParam(required = false) Long lastMemberId,
+      Pageable pageable) {
+    return memberRepository.searchByAgeRank(condition, lastAgeRank, lastMemberId, pageable);
+  }
 }
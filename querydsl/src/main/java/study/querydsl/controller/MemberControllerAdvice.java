@@ -0,0 +1,16 @@
+package study.querydsl.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import study.querydsl.repository.UnsupportedSortException;
+
+@RestControllerAdvice(assignableTypes = {MemberController.class,
+    MemberWindowPagingController.class})
+public class MemberControllerAdvice {
+
+  @ExceptionHandler(UnsupportedSortException.class)
+  public ResponseEntity<String> unsupportedSort(UnsupportedSortException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+}
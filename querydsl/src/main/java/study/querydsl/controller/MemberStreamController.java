@@ -0,0 +1,45 @@
+package study.querydsl.controller;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+/**
+ * 회원 검색 결과를 Server-Sent Events로 스트리밍.
+ * 클라이언트가 요청(request)한 만큼만 청크 단위로 조회하기 때문에 느린 클라이언트가 있어도 메모리에 쌓이는 행은
+ * 최대 청크 두 개이고, 청크 조회 사이에는 DB 커넥션을 잡고 있지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberStreamController {
+
+  private static final int CHUNK_SIZE = 100;
+
+  private final MemberRepository memberRepository;
+
+  @GetMapping(value = "/stream/members", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<MemberTeamDto> streamMember(MemberSearchCondition condition) {
+    return Flux.<List<MemberTeamDto>, Long>generate(() -> 0L, (lastMemberId, sink) -> {
+          List<MemberTeamDto> chunk = memberRepository.searchAfter(condition, lastMemberId,
+              CHUNK_SIZE);
+          if (chunk.isEmpty()) {
+            sink.complete();
+            return lastMemberId;
+          }
+          sink.next(chunk);
+          if (chunk.size() < CHUNK_SIZE) {
+            sink.complete();
+          }
+          return chunk.get(chunk.size() - 1).getMemberId();
+        })
+        .subscribeOn(Schedulers.boundedElastic()) // 블로킹 JDBC 호출은 요청 스레드가 아닌 곳에서
+        .flatMapIterable(chunk -> chunk, 1); // 다음 청크는 하나만 미리 조회
+  }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberSearchCoalescer;
+
+/**
+ * count(*) over() 한 번으로 내용과 전체 개수를 같이 가져오는 페이징. (member.window-paging.enabled=true)
+ * <p>
+ * H2에서는 두 쿼리(/v3/members)보다 수십 배 느렸다. (PagingBenchmarkTest) MySQL에서 같은 테스트로 확인하기 전까지는 켜지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "member.window-paging", name = "enabled", havingValue = "true")
+public class MemberWindowPagingController {
+
+  private final MemberSearchCoalescer memberSearchCoalescer;
+
+  @GetMapping("/v4/members")
+  public Page<MemberTeamDto> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
+    return memberSearchCoalescer.searchPageWindow(condition, pageable);
+  }
+}
@@ -0,0 +1,61 @@
+package study.querydsl.datasource;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+
+/**
+ * 쓰기 트랜잭션을 커밋한 스레드는 일정 시간 동안 읽기도 primary에서 하도록 고정한다. (복제 지연으로 방금 쓴 데이터가 안 보이는 문제)
+ * 웹 요청은 요청이 끝날 때 해제되고, 다음 요청부터는 ReadYourWritesInterceptor가 쿠키로 이어 간다.
+ * 시각은 쿠키로 다른 노드에 넘어가므로 System.currentTimeMillis() 기준이다.
+ */
+public final class ReadYourWrites {
+
+  private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+  private static final ThreadLocal<LongConsumer> LISTENER = new ThreadLocal<>();
+
+  private ReadYourWrites() {
+  }
+
+  public static void pin(Duration window) {
+    long until = System.currentTimeMillis() + window.toMillis();
+    pinUntil(until);
+    LongConsumer listener = LISTENER.get();
+    if (listener != null) {
+      listener.accept(until);
+    }
+  }
+
+  /**
+   * 이전 요청에서 넘어온 고정 시각을 이어 간다. 이미 더 늦은 시각으로 고정되어 있으면 그대로 둔다.
+   */
+  public static void pinUntil(long epochMillis) {
+    Long until = PINNED_UNTIL.get();
+    if (until == null || until < epochMillis) {
+      PINNED_UNTIL.set(epochMillis);
+    }
+  }
+
+  /**
+   * pin() 될 때 고정 시각을 받는다. 요청 안에서 쿠키를 내려보내는 데 사용한다.
+   */
+  public static void onPin(LongConsumer listener) {
+    LISTENER.set(listener);
+  }
+
+  public static boolean isPinned() {
+    Long until = PINNED_UNTIL.get();
+    if (until == null) {
+      return false;
+    }
+    if (System.currentTimeMillis() > until) {
+      PINNED_UNTIL.remove();
+      return false;
+    }
+    return true;
+  }
+
+  public static void clear() {
+    PINNED_UNTIL.remove();
+    LISTENER.remove();
+  }
+}
@@ -0,0 +1,157 @@
+package study.querydsl.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica로, 나머지는 primary로 보낸다.
+ * <ul>
+ *   <li>트랜잭션의 readOnly 여부는 커넥션을 얻은 뒤에 정해지므로 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다.</li>
+ *   <li>쓰기 트랜잭션을 커밋한 스레드는 readYourWritesWindow 동안 primary에서 읽는다.</li>
+ *   <li>checkReplicas()가 주기적으로 지연(lagQuery)과 응답 시간을 측정하고, maxLag를 넘거나 실패한 replica는 제외한다.
+ *   사용할 replica가 없으면 fallbackToPrimary 설정에 따라 primary로 보낸다.</li>
+ * </ul>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  public enum Selection {
+    ROUND_ROBIN, LEAST_LATENCY
+  }
+
+  static final String PRIMARY = "primary";
+  private static final double LATENCY_WEIGHT = 0.2; // 응답 시간 이동 평균 가중치
+
+  private final List<Replica> replicas = new ArrayList<>();
+  private final Selection selection;
+  private final String lagQuery;
+  private final Duration maxLag;
+  private final boolean fallbackToPrimary;
+  private final Duration readYourWritesWindow;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+      Selection selection, String lagQuery, Duration maxLag, boolean fallbackToPrimary,
+      Duration readYourWritesWindow) {
+    this.selection = selection;
+    this.lagQuery = lagQuery;
+    this.maxLag = maxLag;
+    this.fallbackToPrimary = fallbackToPrimary;
+    this.readYourWritesWindow = readYourWritesWindow;
+
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    replicaDataSources.forEach((name, dataSource) -> {
+      targets.put(name, dataSource);
+      replicas.add(new Replica(name, dataSource));
+    });
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      pinAfterCommit();
+      return PRIMARY;
+    }
+    if (ReadYourWrites.isPinned()) {
+      return PRIMARY;
+    }
+    Replica replica = select();
+    return replica != null ? replica.name : PRIMARY;
+  }
+
+  private void pinAfterCommit() {
+    if (!TransactionSynchronizationManager.isActualTransactionActive()
+        || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        ReadYourWrites.pin(readYourWritesWindow);
+      }
+    });
+  }
+
+  private Replica select() {
+    List<Replica> candidates = replicas.stream().filter(replica -> replica.healthy).toList();
+    if (candidates.isEmpty()) {
+      if (fallbackToPrimary || replicas.isEmpty()) {
+        return null;
+      }
+      candidates = replicas; // 지연되더라도 replica 사용
+    }
+    if (selection == Selection.LEAST_LATENCY) {
+      Replica fastest = candidates.get(0);
+      for (Replica replica : candidates) {
+        if (replica.latencyNanos < fastest.latencyNanos) {
+          fastest = replica;
+        }
+      }
+      return fastest;
+    }
+    return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+  }
+
+  /**
+   * replica 상태 확인. lagQuery는 지연 시간(초)을 숫자 하나로 반환해야 한다. 없으면 연결만 확인한다.
+   */
+  public void checkReplicas() {
+    for (Replica replica : replicas) {
+      long start = System.nanoTime();
+      try (Connection connection = replica.dataSource.getConnection();
+          Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery(lagQuery != null ? lagQuery : "select 1")) {
+        boolean healthy = true;
+        if (lagQuery != null && maxLag != null) {
+          double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+          healthy = !resultSet.wasNull() && lagSeconds * 1000 <= maxLag.toMillis(); // null이면 복제 중단
+        }
+        replica.update(healthy, System.nanoTime() - start);
+      } catch (SQLException e) {
+        log.warn("replica {} check failed: {}", replica.name, e.getMessage());
+        replica.update(false, System.nanoTime() - start);
+      }
+    }
+  }
+
+  public void markHealthy(String name, boolean healthy) {
+    replicas.stream().filter(replica -> replica.name.equals(name))
+        .forEach(replica -> replica.healthy = healthy);
+  }
+
+  private static final class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile long latencyNanos;
+
+    private Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    private void update(boolean healthy, long elapsedNanos) {
+      this.healthy = healthy;
+      this.latencyNanos = latencyNanos == 0 ? elapsedNanos
+          : (long) (LATENCY_WEIGHT * elapsedNanos + (1 - LATENCY_WEIGHT) * latencyNanos);
+    }
+  }
+}
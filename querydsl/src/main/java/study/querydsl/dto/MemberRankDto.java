@@ -0,0 +1,26 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class MemberRankDto {
+
+  private Long memberId;
+  private String username;
+  private int age;
+  private int ageRank; // 다음 페이지 조회시 커서로 사용
+  private Long teamId;
+  private String teamName;
+
+  @QueryProjection
+  public MemberRankDto(Long memberId, String username, int age, int ageRank, Long teamId,
+      String teamName) {
+    this.memberId = memberId;
+    this.username = username;
+    this.age = age;
+    this.ageRank = ageRank;
+    this.teamId = teamId;
+    this.teamName = teamName;
+  }
+}
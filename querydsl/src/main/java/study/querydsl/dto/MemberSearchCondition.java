@@ -6,6 +6,8 @@ import lombok.Data;
 public class MemberSearchCondition {
 
   private String username;
+  private UsernameMatch usernameMatch; // 없으면 EXACT
+  private boolean usernameIgnoreCase;
   private String teamName;
   private Integer ageGoe;
   private Integer ageLoe;
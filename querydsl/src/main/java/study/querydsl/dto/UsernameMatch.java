@@ -0,0 +1,10 @@
+package study.querydsl.dto;
+
+/**
+ * username 검색 방식
+ */
+public enum UsernameMatch {
+  EXACT, // 일치
+  PREFIX, // 시작
+  CONTAINS // 포함
+}
@@ -2,11 +2,17 @@ package study.querydsl.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.util.Locale;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,6 +24,14 @@ import lombok.ToString;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 기본 생성자 막고 싶으나 JPA 스펙 상 PROTECTED로 열어주기
 @ToString(of = {"id", "username", "age"}) // 연관관계 없는 필드만
+@Table(indexes = { // 정렬 허용 컬럼 (MemberSortSupport)
+    @Index(name = "idx_member_username", columnList = "username, member_id"),
+    @Index(name = "idx_member_username_lower", columnList = "username_lower, member_id"),
+    @Index(name = "idx_member_age", columnList = "age, member_id"),
+    @Index(name = "idx_member_age_rank", columnList = "age_rank, member_id")
+})
+@EntityListeners({TableVersionListener.class, UsernameFilterListener.class,
+    UsernameIndexListener.class, OutboxListener.class})
 public class Member {
 
   @Id
@@ -27,8 +41,22 @@ public class Member {
 
   private String username;
 
+  /**
+   * 대소문자 무시 검색용 소문자 username. lower(username)으로 비교하면 인덱스를 못 타므로 쓰기 시점에 저장한다.
+   */
+  @Setter(AccessLevel.NONE)
+  @Column(name = "username_lower")
+  private String usernameLower;
+
   private int age;
 
+  /**
+   * 나이 구간 순위. orderBy에서 CaseBuilder로 계산하면 매번 filesort가 발생하므로, 쓰기 시점에 저장하고 인덱스를 태운다.
+   */
+  @Setter(AccessLevel.NONE)
+  @Column(name = "age_rank")
+  private int ageRank;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "team_id")
   private Team team; // 연관관계의 주인
@@ -53,4 +81,39 @@ public class Member {
     this.team = team;
     team.getMembers().add(this);
   }
+
+  // 벌크 연산(update member set ...)은 콜백을 거치지 않으므로 age_rank, username_lower도 함께 수정해야 한다.
+  @PrePersist
+  @PreUpdate
+  void updateDerivedColumns() {
+    this.ageRank = ageRankOf(age);
+    this.usernameLower = lowerCase(username);
+  }
+
+  public static String lowerCase(String username) {
+    return username == null ? null : username.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * 1. 0~30살이 아닌 회원 (3) / 2. 0~20살 회원 (2) / 3. 21~30살 회원 (1) - 내림차순으로 정렬해서 사용
+   */
+  public static int ageRankOf(int age) {
+    if (age >= 0 && age <= 20) {
+      return 2;
+    }
+    if (age >= 21 && age <= 30) {
+      return 1;
+    }
+    return 3;
+  }
+
+  /**
+   * ageRankOf와 같은 규칙의 SQL 식. 엔티티 콜백을 거치지 않는 update에서 사용한다.
+   *
+   * @param age 나이 SQL 식. 바인드 변수가 있으면 그 개수만큼 두 번 바인딩해야 한다. (예: "(age + ?)")
+   */
+  public static String ageRankSql(String age) {
+    return "case when " + age + " between 0 and 20 then 2 when " + age + " between 21 and 30 then 1"
+        + " else 3 end";
+  }
 }
@@ -0,0 +1,52 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Member/Team 변경 이벤트 아웃박스. 엔티티 리스너(OutboxListener)가 같은 트랜잭션 안에서 넣고,
+ * OutboxRelay가 전달한 뒤 삭제한다. 리스너는 JDBC로 넣으므로 id는 DB에서 생성한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "aggregateType", "aggregateId", "eventType"})
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+  public enum Type {
+    CREATED, UPDATED, DELETED
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "outbox_event_id")
+  private Long id;
+
+  @Column(name = "aggregate_type")
+  private String aggregateType;
+
+  @Column(name = "aggregate_id")
+  private Long aggregateId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type")
+  private Type eventType;
+
+  @Column(length = 2000)
+  private String payload; // 변경 후 상태 (JSON)
+
+  @Column(name = "created_at")
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,84 @@
+package study.querydsl.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.OutboxEvent.Type;
+
+/**
+ * Member/Team 변경을 아웃박스 테이블에 기록한다. 플러시 중에는 영속성 컨텍스트를 바꿀 수 없으므로 JDBC로 넣는다.
+ * JdbcTemplate은 JPA 트랜잭션의 커넥션을 같이 쓰므로 엔티티 변경과 함께 커밋/롤백된다.
+ * 벌크 연산(update, delete)은 엔티티 리스너를 거치지 않으므로 기록되지 않는다.
+ * <p>
+ * member.outbox.sink를 설정하지 않으면 OutboxRelay가 없어서 아무도 비우지 않으므로 기록하지 않는다.
+ */
+public class OutboxListener {
+
+  private static final String INSERT_SQL = "insert into outbox_event "
+      + "(aggregate_type, aggregate_id, event_type, payload, created_at) values (?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+
+  public OutboxListener(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+      @Value("${member.outbox.sink:}") String sink) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.enabled = !sink.isEmpty();
+  }
+
+  @PostPersist
+  void onPersist(Object entity) {
+    append(entity, Type.CREATED);
+  }
+
+  @PostUpdate
+  void onUpdate(Object entity) {
+    append(entity, Type.UPDATED);
+  }
+
+  @PostRemove
+  void onRemove(Object entity) {
+    append(entity, Type.DELETED);
+  }
+
+  private void append(Object entity, Type type) {
+    if (!enabled) {
+      return;
+    }
+    Map<String, Object> payload = new LinkedHashMap<>();
+    Long id;
+    if (entity instanceof Member member) {
+      id = member.getId();
+      payload.put("id", id);
+      payload.put("username", member.getUsername());
+      payload.put("age", member.getAge());
+      payload.put("teamId", member.getTeam() != null ? member.getTeam().getId() : null);
+    } else if (entity instanceof Team team) {
+      id = team.getId();
+      payload.put("id", id);
+      payload.put("name", team.getName());
+    } else {
+      return;
+    }
+    jdbcTemplate.update(INSERT_SQL, entity.getClass().getSimpleName(), id, type.name(),
+        toJson(payload), Timestamp.valueOf(LocalDateTime.now()));
+  }
+
+  private String toJson(Map<String, Object> payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
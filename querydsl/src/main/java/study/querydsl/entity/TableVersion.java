@@ -0,0 +1,85 @@
+package study.querydsl.entity;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Member/Team 테이블 변경 버전. 조회 API의 ETag와 검색 합치기 키에 사용한다.
+ * <p>
+ * 버전은 DB의 table_version 행에 있으므로 여러 인스턴스가 같은 값을 본다. (다른 노드에서 커밋한 변경도 ETag를 바꾼다)
+ * <ul>
+ *   <li>엔티티 변경은 TableVersionListener가 커밋 후에 올린다.
+ *   커밋 전에 올리면 이전 데이터가 새 버전의 ETag로 캐시될 수 있다.</li>
+ *   <li>벌크 연산(update, delete)은 엔티티 리스너를 거치지 않으므로 직접 increment()를 호출해야 한다.</li>
+ *   <li>커밋 후 버전을 올리기 전에 프로세스가 죽으면 다음 변경까지 이전 ETag가 유지된다.</li>
+ * </ul>
+ */
+@Component
+public class TableVersion {
+
+  private static final String NAME = "member";
+  private static final String SELECT_SQL = "select version from table_version where name = ?";
+  private static final String UPDATE_SQL =
+      "update table_version set version = version + 1 where name = ?";
+  private static final String INSERT_SQL = "insert into table_version (name, version) values (?, 1)";
+
+  private final JdbcTemplate jdbcTemplate;
+  // 트랜잭션 매니저는 엔티티 리스너(이 빈을 사용)를 만든 뒤에 생성되므로 나중에 가져온다
+  private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  private volatile long lastSeen = -1;
+  private volatile long changedAt; // System.nanoTime(), 이 노드가 새 버전을 처음 본 시각
+
+  public TableVersion(JdbcTemplate jdbcTemplate,
+      ObjectProvider<PlatformTransactionManager> transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionManager = transactionManager;
+  }
+
+  public long current() {
+    List<Long> versions = jdbcTemplate.queryForList(SELECT_SQL, Long.class, NAME);
+    return observe(versions.isEmpty() ? 0 : versions.get(0));
+  }
+
+  /**
+   * 호출한 쪽의 트랜잭션과 관계없이 새 트랜잭션에서 바로 커밋한다. (afterCommit에서도 호출할 수 있도록)
+   */
+  public void increment() {
+    TransactionTemplate requiresNew = new TransactionTemplate(transactionManager.getObject());
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    requiresNew.executeWithoutResult(status -> {
+      if (jdbcTemplate.update(UPDATE_SQL, NAME) == 0) {
+        try {
+          jdbcTemplate.update(INSERT_SQL, NAME);
+        } catch (DuplicateKeyException e) {
+          jdbcTemplate.update(UPDATE_SQL, NAME); // 다른 노드가 먼저 넣었다
+        }
+      }
+    });
+    current();
+  }
+
+  /**
+   * 이 노드가 마지막으로 새 버전을 본 뒤 window가 지나지 않았으면 true.
+   * 다른 노드의 변경은 커밋보다 늦게 보게 되므로 실제 변경 시각보다 길게 잡힌다.
+   */
+  public boolean changedWithin(Duration window) {
+    return lastSeen >= 0 && System.nanoTime() - changedAt < window.toNanos();
+  }
+
+  private long observe(long version) {
+    if (version != lastSeen) {
+      // 새 버전을 본 쪽이 변경 시각도 보도록 먼저 기록한다
+      changedAt = System.nanoTime();
+      lastSeen = version;
+    }
+    return version;
+  }
+}
@@ -0,0 +1,45 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 엔티티 변경 시 TableVersion 증가. 커밋 전에 올리면 이전 데이터가 새 버전의 ETag로 캐시될 수 있으므로 커밋 후에 올린다.
+ * 하이버네이트가 스프링 빈 컨테이너로 생성하기 때문에 생성자 주입이 가능하다.
+ */
+public class TableVersionListener {
+
+  private final TableVersion tableVersion;
+
+  public TableVersionListener(TableVersion tableVersion) {
+    this.tableVersion = tableVersion;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void onChange(Object entity) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      tableVersion.increment();
+      return;
+    }
+    if (TransactionSynchronizationManager.hasResource(tableVersion)) {
+      return; // 트랜잭션당 한 번만 등록
+    }
+    TransactionSynchronizationManager.bindResource(tableVersion, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        tableVersion.increment();
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(tableVersion);
+      }
+    });
+  }
+}
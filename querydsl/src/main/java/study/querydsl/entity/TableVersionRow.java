@@ -0,0 +1,25 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * TableVersion이 읽고 올리는 버전 행. 테이블 생성용이고, 값은 TableVersion이 JDBC로만 다룬다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "table_version")
+public class TableVersionRow {
+
+  @Id
+  @Column(length = 50)
+  private String name;
+
+  private long version;
+}
@@ -0,0 +1,39 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.repository.UsernameBloomFilter;
+
+/**
+ * username을 블룸 필터에 추가. persist() 시점에 바로 추가해서 같은 트랜잭션 안의 조회에서도 보이게 하고,
+ * 커밋 후에 한 번 더 추가해서 그 사이에 필터가 재생성되어도 빠지지 않게 한다.
+ * (롤백되면 필터에 남지만 false positive라서 문제 없음)
+ */
+public class UsernameFilterListener {
+
+  // 리스너는 EntityManagerFactory 생성 중에 만들어지고 필터는 EntityManager가 필요하므로 늦게 가져온다.
+  private final ObjectProvider<UsernameBloomFilter> usernameBloomFilterProvider;
+
+  public UsernameFilterListener(ObjectProvider<UsernameBloomFilter> usernameBloomFilterProvider) {
+    this.usernameBloomFilterProvider = usernameBloomFilterProvider;
+  }
+
+  @PrePersist
+  @PreUpdate
+  void onWrite(Member member) {
+    UsernameBloomFilter usernameBloomFilter = usernameBloomFilterProvider.getObject();
+    String username = member.getUsername();
+    usernameBloomFilter.put(username);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          usernameBloomFilter.put(username);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.repository.UsernameNgramIndex;
+
+/**
+ * username 트라이그램 인덱스 갱신. 추가는 바로 반영하고(롤백되어도 DB 조회에서 걸러짐),
+ * 이름 변경과 삭제는 롤백되면 되돌릴 수 없으므로 커밋 후에 반영한다.
+ */
+public class UsernameIndexListener {
+
+  private final ObjectProvider<UsernameNgramIndex> usernameNgramIndexProvider;
+
+  public UsernameIndexListener(ObjectProvider<UsernameNgramIndex> usernameNgramIndexProvider) {
+    this.usernameNgramIndexProvider = usernameNgramIndexProvider;
+  }
+
+  @PostPersist
+  void onPersist(Member member) {
+    usernameNgramIndexProvider.getObject().put(member.getId(), member.getUsername());
+  }
+
+  @PostUpdate
+  void onUpdate(Member member) {
+    Long id = member.getId();
+    String username = member.getUsername();
+    afterCommit(() -> usernameNgramIndexProvider.getObject().put(id, username));
+  }
+
+  @PostRemove
+  void onRemove(Member member) {
+    Long id = member.getId();
+    afterCommit(() -> usernameNgramIndexProvider.getObject().remove(id));
+  }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.OutboxEvent;
+
+/**
+ * 로컬 파일에 JSON Lines로 추가한다. fsync=true면 배치마다 디스크에 기록한 뒤 아웃박스에서 삭제한다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "member.outbox", name = "sink", havingValue = "file")
+public class FileOutboxEventSink implements OutboxEventSink {
+
+  private final ObjectMapper objectMapper;
+  private final FileChannel channel;
+  private final boolean fsync;
+
+  public FileOutboxEventSink(ObjectMapper objectMapper,
+      @Value("${member.outbox.file.path:outbox/events.jsonl}") Path path,
+      @Value("${member.outbox.file.fsync:false}") boolean fsync) throws IOException {
+    this.objectMapper = objectMapper;
+    this.fsync = fsync;
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  @Override
+  public synchronized void publish(List<OutboxEvent> events) {
+    StringBuilder lines = new StringBuilder();
+    for (OutboxEvent event : events) {
+      lines.append(toJson(event)).append('\n');
+    }
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      if (fsync) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String toJson(OutboxEvent event) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("id", event.getId());
+    line.put("aggregateType", event.getAggregateType());
+    line.put("aggregateId", event.getAggregateId());
+    line.put("eventType", event.getEventType());
+    line.put("createdAt", event.getCreatedAt().toString());
+    try {
+      line.put("payload", objectMapper.readTree(event.getPayload()));
+      return objectMapper.writeValueAsString(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    channel.close();
+  }
+}
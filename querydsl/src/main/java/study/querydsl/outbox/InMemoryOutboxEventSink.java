@@ -0,0 +1,48 @@
+package study.querydsl.outbox;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.OutboxEvent;
+
+/**
+ * 메모리 큐 (member.outbox.sink=memory). 같은 프로세스의 소비자가 poll/drainTo로 가져간다.
+ * 큐가 가득 차면 배치를 거절해서 아웃박스에 남겨둔다. (배압)
+ * 꺼내 가는 소비자가 있을 때만 설정한다. 없으면 큐가 차서 이벤트가 아웃박스에 계속 쌓인다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "member.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+  private final BlockingQueue<OutboxEvent> queue;
+
+  public InMemoryOutboxEventSink(@Value("${member.outbox.memory.capacity:10000}") int capacity) {
+    this.queue = new LinkedBlockingQueue<>(capacity);
+  }
+
+  @Override
+  public synchronized void publish(List<OutboxEvent> events) {
+    // 소비자는 꺼내기만 하므로 확인 후 넣어도 자리가 부족해지지 않는다.
+    if (queue.remainingCapacity() < events.size()) {
+      throw new IllegalStateException("outbox queue is full. size=" + queue.size());
+    }
+    queue.addAll(events);
+  }
+
+  public OutboxEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  public int drainTo(Collection<? super OutboxEvent> events) {
+    return queue.drainTo(events);
+  }
+
+  public int size() {
+    return queue.size();
+  }
+}
@@ -0,0 +1,12 @@
+package study.querydsl.outbox;
+
+import java.util.List;
+import study.querydsl.entity.OutboxEvent;
+
+/**
+ * 아웃박스 이벤트 전달 대상. 예외를 던지면 배치 전체가 아웃박스에 남아서 다음 주기에 다시 전달된다. (at-least-once)
+ */
+public interface OutboxEventSink {
+
+  void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,101 @@
+package study.querydsl.outbox;
+
+import static study.querydsl.entity.QOutboxEvent.outboxEvent;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.OutboxEvent;
+
+/**
+ * 아웃박스 이벤트를 배치로 가져와 OutboxEventSink로 전달하고 삭제한다.
+ * <ul>
+ *   <li>select ... for update skip locked로 가져오므로 여러 인스턴스가 동시에 돌아도 같은 이벤트를 나눠 가지지 않는다.
+ *   (skip locked를 지원하지 않는 DB는 일반 for update로 순서대로 처리)</li>
+ *   <li>전달과 삭제가 한 트랜잭션이므로 전달 후 커밋 전에 죽으면 다시 전달된다. (at-least-once, 소비자는 id로 중복 제거)</li>
+ *   <li>가져온 배치가 가득 차 있으면 쉬지 않고 다음 배치를 가져온다.</li>
+ *   <li>member.outbox.sink(memory, file)를 설정해야 동작한다. 설정하지 않으면 OutboxListener도 이벤트를 기록하지 않는다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "member.outbox", name = "sink")
+public class OutboxRelay {
+
+  private static final String LOCK_TIMEOUT = "jakarta.persistence.lock.timeout";
+  // Hibernate는 lock timeout -2를 skip locked로 해석한다. (LockOptions.SKIP_LOCKED는 6.2부터 deprecated)
+  private static final int SKIP_LOCKED = -2;
+
+  private final JPAQueryFactory queryFactory;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxEventSink sink;
+  private final int batchSize;
+
+  private final Counter delivered;
+  private final Counter failed;
+  private final Timer lag;
+
+  public OutboxRelay(EntityManager em, TransactionTemplate transactionTemplate,
+      OutboxEventSink sink, MeterRegistry registry,
+      @Value("${member.outbox.batch-size:500}") int batchSize) {
+    this.queryFactory = new JPAQueryFactory(em);
+    this.transactionTemplate = transactionTemplate;
+    this.sink = sink;
+    this.batchSize = batchSize;
+    this.delivered = registry.counter("member.outbox.delivered");
+    this.failed = registry.counter("member.outbox.failed");
+    this.lag = registry.timer("member.outbox.lag"); // 커밋 ~ 전달
+  }
+
+  @Scheduled(fixedDelayString = "${member.outbox.poll-interval:PT0.5S}")
+  public synchronized void relay() {
+    try {
+      Integer count;
+      do {
+        count = transactionTemplate.execute(status -> relayBatch());
+      } while (count != null && count == batchSize);
+    } catch (RuntimeException e) {
+      failed.increment();
+      log.warn("outbox relay failed. will retry next poll", e);
+    }
+  }
+
+  private int relayBatch() {
+    List<OutboxEvent> events = queryFactory
+        .selectFrom(outboxEvent)
+        .orderBy(outboxEvent.id.asc())
+        .limit(batchSize)
+        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+        .setHint(LOCK_TIMEOUT, SKIP_LOCKED)
+        .fetch();
+    if (events.isEmpty()) {
+      return 0;
+    }
+
+    sink.publish(events);
+
+    queryFactory
+        .delete(outboxEvent)
+        .where(outboxEvent.id.in(events.stream().map(OutboxEvent::getId).toList()))
+        .execute();
+
+    LocalDateTime now = LocalDateTime.now();
+    for (OutboxEvent event : events) {
+      lag.record(Duration.between(event.getCreatedAt(), now));
+    }
+    delivered.increment(events.size());
+    return events.size();
+  }
+}
@@ -0,0 +1,75 @@
+package study.querydsl.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.TableVersion;
+
+/**
+ * 쓰기 시점에 저장하는 파생 컬럼을 기존 행에 채운다. 컬럼이 생기기 전에 저장된 행은 엔티티 콜백을 거친 적이 없다.
+ * <ul>
+ *   <li>age_rank: 비어 있으면(null, 또는 MySQL이 not null 컬럼을 추가하면서 채운 0) 순위 목록에 나오지 않는다.</li>
+ *   <li>username_lower: 비어 있으면 대소문자 무시 검색에 나오지 않는다.</li>
+ * </ul>
+ * 한 번에 테이블 전체를 잠그지 않도록 member_id 구간별로 나눠서 update한다.
+ * 이미 채워진 행은 조건에서 걸러지므로 여러 번 실행해도 된다.
+ * <p>
+ * 컬럼 추가 후 한 번만 필요한 마이그레이션이므로 기본은 꺼져 있다.
+ * 배포할 때 한 인스턴스만 member.backfill.enabled=true로 시작하고, 끝나면 다시 끈다.
+ */
+@Slf4j
+@Component
+public class DerivedColumnBackfill implements ApplicationRunner {
+
+  private static final String AGE_RANK_SQL = "update member set age_rank = " + Member.ageRankSql("age")
+      + " where member_id between ? and ? and (age_rank is null or age_rank = 0)";
+  // DB lower()와 Member.lowerCase(Locale.ROOT)는 ASCII 밖의 일부 문자에서 다를 수 있지만, 이후 수정 시 엔티티 값으로 덮인다
+  private static final String USERNAME_LOWER_SQL = "update member set username_lower = lower(username) "
+      + "where member_id between ? and ? and username_lower is null and username is not null";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TableVersion tableVersion;
+  private final boolean enabled;
+  private final int chunkSize;
+
+  public DerivedColumnBackfill(JdbcTemplate jdbcTemplate, TableVersion tableVersion,
+      @Value("${member.backfill.enabled:false}") boolean enabled,
+      @Value("${member.backfill.chunk-size:10000}") int chunkSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.tableVersion = tableVersion;
+    this.enabled = enabled;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (enabled) {
+      backfill();
+    }
+  }
+
+  /**
+   * @return 수정한 행 수
+   */
+  public int backfill() {
+    Long min = jdbcTemplate.queryForObject("select min(member_id) from member", Long.class);
+    Long max = jdbcTemplate.queryForObject("select max(member_id) from member", Long.class);
+    if (min == null || max == null) {
+      return 0;
+    }
+    int updated = 0;
+    for (long from = min; from <= max; from += chunkSize) {
+      updated += jdbcTemplate.update(AGE_RANK_SQL, from, from + chunkSize - 1);
+      updated += jdbcTemplate.update(USERNAME_LOWER_SQL, from, from + chunkSize - 1);
+    }
+    if (updated > 0) {
+      tableVersion.increment(); // 목록 결과가 바뀌었으므로 ETag도 바꾼다
+      log.info("derived columns backfilled. rows={}", updated);
+    }
+    return updated;
+  }
+}
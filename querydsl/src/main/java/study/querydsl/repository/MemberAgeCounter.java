@@ -0,0 +1,151 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.TableVersion;
+
+/**
+ * 회원 나이 증가 쓰기 지연(write-behind). 같은 회원에 대한 증가분을 메모리에서 합쳐 두었다가
+ * 주기적으로(또는 쌓인 회원 수가 max-pending을 넘으면) 한 번의 배치 update로 반영한다.
+ * <ul>
+ *   <li>mode=WRITE_BEHIND: 반영 전에 프로세스가 죽으면 flush되지 않은 증가분은 유실된다. (종료 시에는 flush)</li>
+ *   <li>mode=WRITE_THROUGH: 매번 바로 update (유실 없음, 기존 동작과 같음)</li>
+ *   <li>requeue-on-failure=true: update가 실패하면 증가분을 다시 쌓아서 다음 flush에 재시도</li>
+ * </ul>
+ * 영속성 컨텍스트를 거치지 않는 벌크 연산이므로 이미 조회한 엔티티에는 반영되지 않는다.
+ * 엔티티 리스너도 거치지 않으므로 나이 증가는 아웃박스 이벤트로 나가지 않는다. (두 모드 모두)
+ * 이벤트 소비자가 가진 age는 다음 엔티티 변경 이벤트 전까지 이전 값이다.
+ */
+@Slf4j
+@Component
+public class MemberAgeCounter {
+
+  public enum Mode {
+    WRITE_BEHIND, WRITE_THROUGH
+  }
+
+  // age_rank를 먼저 계산해야 MySQL(왼쪽부터 순서대로 반영)에서도 이전 age 기준으로 계산된다.
+  private static final String UPDATE_SQL = "update member set "
+      + "age_rank = " + Member.ageRankSql("(age + ?)") + ", age = age + ? where member_id = ?";
+
+  private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  private volatile boolean closed;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TableVersion tableVersion;
+  private final TaskExecutor taskExecutor;
+  private final Mode mode;
+  private final int maxPending;
+  private final int batchSize;
+  private final boolean requeueOnFailure;
+
+  private final Counter flushedRows;
+  private final Counter failedRows;
+
+  public MemberAgeCounter(JdbcTemplate jdbcTemplate, TableVersion tableVersion,
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor, MeterRegistry registry,
+      @Value("${member.age-counter.mode:WRITE_BEHIND}") Mode mode,
+      @Value("${member.age-counter.max-pending:10000}") int maxPending,
+      @Value("${member.age-counter.batch-size:500}") int batchSize,
+      @Value("${member.age-counter.requeue-on-failure:true}") boolean requeueOnFailure) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.tableVersion = tableVersion;
+    this.taskExecutor = taskExecutor;
+    this.mode = mode;
+    this.maxPending = maxPending;
+    this.batchSize = batchSize;
+    this.requeueOnFailure = requeueOnFailure;
+    this.flushedRows = registry.counter("member.age-counter.flushed");
+    this.failedRows = registry.counter("member.age-counter.failed");
+    registry.gauge("member.age-counter.pending", pending, ConcurrentHashMap::size);
+  }
+
+  public void increment(Long memberId, long delta) {
+    if (mode == Mode.WRITE_THROUGH || closed) {
+      update(List.<Object[]>of(new Object[]{delta, delta, delta, memberId}));
+      return;
+    }
+    add(memberId, delta);
+    if (pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+      taskExecutor.execute(this::flush);
+    }
+  }
+
+  private void add(Long memberId, long delta) {
+    while (delta != 0) {
+      LongAdder adder = pending.computeIfAbsent(memberId, id -> new LongAdder());
+      adder.add(delta);
+      if (pending.get(memberId) == adder) {
+        return;
+      }
+      // flush가 쉬고 있던 셀을 막 제거했다. 제거 후 더해진 값은 flush가 못 가져갔을 수 있으므로 새 셀로 옮긴다.
+      delta = adder.sumThenReset();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${member.age-counter.flush-interval:PT1S}")
+  public synchronized void flush() {
+    flushRequested.set(false);
+    List<Object[]> rows = new ArrayList<>();
+    for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+      LongAdder adder = entry.getValue();
+      long delta = adder.sumThenReset();
+      if (delta == 0) {
+        // 이번 주기에 증가가 없던 회원만 제거. 제거 직전에 더해진 값은 다시 가져온다.
+        pending.remove(entry.getKey(), adder);
+        delta = adder.sumThenReset();
+      }
+      if (delta != 0) {
+        rows.add(new Object[]{delta, delta, delta, entry.getKey()});
+      }
+    }
+    rows.sort((a, b) -> Long.compare((Long) a[3], (Long) b[3])); // 락 순서를 고정해서 데드락 방지
+
+    for (int from = 0; from < rows.size(); from += batchSize) {
+      List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+      try {
+        update(batch);
+      } catch (DataAccessException e) {
+        failedRows.increment(batch.size());
+        log.warn("member age flush failed. rows={}, requeue={}", batch.size(), requeueOnFailure, e);
+        if (requeueOnFailure) {
+          batch.forEach(row -> add((Long) row[3], (Long) row[2]));
+        }
+      }
+    }
+  }
+
+  private void update(List<Object[]> rows) {
+    jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+    flushedRows.increment(rows.size());
+    tableVersion.increment();
+  }
+
+  public long pendingOf(Long memberId) {
+    LongAdder adder = pending.get(memberId);
+    return adder == null ? 0 : adder.sum();
+  }
+
+  @PreDestroy
+  public void close() {
+    closed = true; // 이후 증가는 바로 update
+    flush();
+  }
+}
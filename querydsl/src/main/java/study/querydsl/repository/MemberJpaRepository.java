@@ -13,6 +13,7 @@ import jakarta.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
@@ -20,16 +21,20 @@ import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 
 @Repository
+@Transactional(readOnly = true)
 public class MemberJpaRepository {
 
   private final EntityManager em;
   private final JPAQueryFactory queryFactory;
+  private final UsernamePredicates usernamePredicates;
 
-  public MemberJpaRepository(EntityManager em) {
+  public MemberJpaRepository(EntityManager em, UsernamePredicates usernamePredicates) {
     this.em = em;
     this.queryFactory = new JPAQueryFactory(em);
+    this.usernamePredicates = usernamePredicates;
   }
 
+  @Transactional
   public void save(Member member) {
     em.persist(member);
   }
@@ -67,7 +72,7 @@ public class MemberJpaRepository {
   public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
     BooleanBuilder builder = new BooleanBuilder();
     if (hasText(condition.getUsername())) {
-      builder.and(member.username.eq(condition.getUsername()));
+      builder.and(usernamePredicates.of(condition));
     }
     if (hasText(condition.getTeamName())) {
       builder.and(team.name.eq(condition.getTeamName()));
@@ -103,15 +108,15 @@ public class MemberJpaRepository {
         ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
         .fetch();
   }
 
-  private Predicate usernameEq(String username) {
-    return isEmpty(username) ? null : member.username.eq(username);
+  private Predicate usernameCond(MemberSearchCondition condition) {
+    return usernamePredicates.of(condition);
   }
 
   private Predicate teamNameEq(String teamName) {
@@ -131,7 +136,7 @@ public class MemberJpaRepository {
     return queryFactory
         .selectFrom(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
@@ -1,17 +1,30 @@
 package study.querydsl.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.querydsl.dto.MemberRankDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
 
 public interface MemberRepositoryCustom {
 
   List<MemberTeamDto> search(MemberSearchCondition condition);
 
+  List<Member> findByUsernames(Collection<String> usernames);
+
+  List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long lastMemberId, int limit);
+
   Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
 
   Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
 
+  Page<MemberTeamDto> searchPageWindow(MemberSearchCondition condition, Pageable pageable);
+
+  Slice<MemberRankDto> searchByAgeRank(MemberSearchCondition condition, Integer lastAgeRank,
+      Long lastMemberId, Pageable pageable);
+
 }
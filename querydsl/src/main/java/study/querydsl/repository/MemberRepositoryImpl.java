@@ -3,29 +3,57 @@ package study.querydsl.repository;
 import static io.micrometer.common.util.StringUtils.isEmpty;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.MemberSortSupport.toOrderSpecifiers;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberRankDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberRankDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 
+@Transactional(readOnly = true) // 조회 전용 - replica 라우팅 대상
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+  private static final int IN_CHUNK_SIZE = 500;
+
   private final JPAQueryFactory queryFactory;
+  private final UsernameBloomFilter usernameBloomFilter;
+  private final UsernamePredicates usernamePredicates;
+  private final boolean supportsWindowFunctions;
 
-  public MemberRepositoryImpl(EntityManager em) {
+  public MemberRepositoryImpl(EntityManager em, UsernameBloomFilter usernameBloomFilter,
+      UsernamePredicates usernamePredicates) {
     this.queryFactory = new JPAQueryFactory(em);
+    this.usernameBloomFilter = usernameBloomFilter;
+    this.usernamePredicates = usernamePredicates;
+    this.supportsWindowFunctions = em.getEntityManagerFactory()
+        .unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices().getDialect().supportsWindowFunctions();
   }
 
   @Override
@@ -40,15 +68,63 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
         .fetch();
   }
 
-  private Predicate usernameEq(String username) {
-    return isEmpty(username) ? null : member.username.eq(username);
+  /**
+   * 여러 username 한 번에 조회. 블룸 필터에서 없는 것이 확실한 이름은 빼고, 나머지를 IN 절 크기 제한에 맞게 나눠서 조회한다.
+   */
+  @Override
+  public List<Member> findByUsernames(Collection<String> usernames) {
+    List<String> candidates = usernames.stream()
+        .filter(Objects::nonNull)
+        .distinct()
+        .filter(usernameBloomFilter::mightContain)
+        .toList();
+
+    List<Member> result = new ArrayList<>();
+    for (int from = 0; from < candidates.size(); from += IN_CHUNK_SIZE) {
+      List<String> chunk = candidates.subList(from, Math.min(from + IN_CHUNK_SIZE, candidates.size()));
+      result.addAll(queryFactory
+          .selectFrom(member)
+          .where(member.username.in(chunk))
+          .fetch());
+    }
+    return result;
+  }
+
+  /**
+   * member_id 키셋 청크 조회. 스트리밍 API에서 트랜잭션 없이 청크마다 커넥션을 잠깐씩만 사용한다.
+   */
+  @Override
+  public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long lastMemberId,
+      int limit) {
+    return queryFactory
+        .select(new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+        ))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(usernameCond(condition),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe()),
+            lastMemberId != null ? member.id.gt(lastMemberId) : null)
+        .orderBy(member.id.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  private Predicate usernameCond(MemberSearchCondition condition) {
+    return usernamePredicates.of(condition);
   }
 
   private Predicate teamNameEq(String teamName) {
@@ -78,10 +154,11 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
+        .orderBy(toOrderSpecifiers(pageable.getSort()))
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
         .fetchResults(); // 내용과 전체 카운트를 한번에 조회 가능.
@@ -108,10 +185,11 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
+        .orderBy(toOrderSpecifiers(pageable.getSort()))
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
         .fetch();
@@ -120,7 +198,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         .select(member)
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
@@ -142,10 +220,11 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
+        .orderBy(toOrderSpecifiers(pageable.getSort()))
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
         .fetch();
@@ -154,7 +233,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         .select(member)
         .from(member)
         .leftJoin(member.team, team)
-        .where(usernameEq(condition.getUsername()),
+        .where(usernameCond(condition),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()));
@@ -162,4 +241,113 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     // 스프링 데이터 라이브러리가 제공.
     // count 쿼리가 생략 가능한 경우에 생략해서 처리함.
   }
+
+  /**
+   * 내용과 전체 카운트를 count(*) over()로 한 번에 조회 / 쿼리 한 번으로 페이징.
+   * 윈도우 함수를 지원하지 않는 DB(MySQL 5.7 등)는 카운트 쿼리를 분리하는 방식으로 처리한다.
+   */
+  @Override
+  public Page<MemberTeamDto> searchPageWindow(MemberSearchCondition condition, Pageable pageable) {
+    if (!supportsWindowFunctions) {
+      return searchPageComplex2(condition, pageable);
+    }
+
+    NumberExpression<Long> total = Expressions.numberTemplate(Long.class, "count(*) over()");
+    List<Tuple> rows = queryFactory
+        .select(new QMemberTeamDto(
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name
+            ),
+            total)
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(usernameCond(condition),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe()))
+        .orderBy(toOrderSpecifiers(pageable.getSort()))
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize())
+        .fetch();
+
+    List<MemberTeamDto> content = rows.stream()
+        .map(row -> row.get(0, MemberTeamDto.class))
+        .toList();
+    // 마지막 페이지를 넘어가면 행이 없어서 카운트도 없으므로 그때만 카운트 쿼리 실행
+    return PageableExecutionUtils.getPage(content, pageable,
+        () -> rows.isEmpty() ? countMember(condition) : rows.get(0).get(total));
+  }
+
+  private long countMember(MemberSearchCondition condition) {
+    return queryFactory
+        .select(member.count())
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(usernameCond(condition),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe()))
+        .fetchOne();
+  }
+
+  /**
+   * 나이 구간 순위 정렬 + 키셋 페이징. (age_rank, member_id) 인덱스 순서대로 읽기 때문에 filesort와 offset 스캔이 없다.
+   * 다음 페이지는 마지막으로 받은 ageRank, memberId를 넘겨서 조회한다.
+   */
+  @Override
+  public Slice<MemberRankDto> searchByAgeRank(MemberSearchCondition condition, Integer lastAgeRank,
+      Long lastMemberId, Pageable pageable) {
+    Order direction = ageRankDirection(pageable.getSort());
+    List<MemberRankDto> content = queryFactory
+        .select(new QMemberRankDto(
+            member.id,
+            member.username,
+            member.age,
+            member.ageRank,
+            team.id,
+            team.name
+        ))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(usernameCond(condition),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe()),
+            ageRankAfter(lastAgeRank, lastMemberId, direction))
+        .orderBy(new OrderSpecifier<>(direction, member.ageRank),
+            new OrderSpecifier<>(direction, member.id)) // 같은 순위 안에서 순서를 고정
+        .limit(pageable.getPageSize() + 1) // 한 건 더 조회해서 다음 페이지 여부 확인
+        .fetch();
+
+    boolean hasNext = content.size() > pageable.getPageSize();
+    if (hasNext) {
+      content.remove(pageable.getPageSize());
+    }
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+
+  private Order ageRankDirection(Sort sort) {
+    for (Sort.Order order : sort) {
+      if (!order.getProperty().equals("ageRank")) {
+        throw new UnsupportedSortException("ageRank로만 정렬할 수 있습니다. property=" + order.getProperty());
+      }
+    }
+    Sort.Order order = sort.getOrderFor("ageRank");
+    return order == null || order.isDescending() ? Order.DESC : Order.ASC; // 기본은 내림차순
+  }
+
+  private BooleanExpression ageRankAfter(Integer lastAgeRank, Long lastMemberId, Order direction) {
+    if (lastAgeRank == null || lastMemberId == null) {
+      return null;
+    }
+    if (direction == Order.DESC) {
+      return member.ageRank.lt(lastAgeRank)
+          .or(member.ageRank.eq(lastAgeRank).and(member.id.lt(lastMemberId)));
+    }
+    return member.ageRank.gt(lastAgeRank)
+        .or(member.ageRank.eq(lastAgeRank).and(member.id.gt(lastMemberId)));
+  }
 }
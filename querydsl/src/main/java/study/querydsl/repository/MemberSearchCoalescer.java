@@ -0,0 +1,72 @@
+package study.querydsl.repository;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.TableVersion;
+
+/**
+ * 대시보드 새로고침처럼 같은 검색 조건이 동시에 몰릴 때 쿼리를 한 번만 실행하도록 MemberRepository 앞에서 합친다.
+ * <p>
+ * 키에 테이블 버전을 넣어서 같은 버전을 본 요청끼리만 합친다. ETag는 컨트롤러 전에 버전을 읽으므로
+ * 커밋 전에 시작한 쿼리에 합류하면 이전 결과가 새 버전의 ETag로 캐시될 수 있다.
+ */
+@Component
+public class MemberSearchCoalescer {
+
+  private final MemberRepository memberRepository;
+  private final TableVersion tableVersion;
+  private final SingleFlight singleFlight;
+
+  public MemberSearchCoalescer(MemberRepository memberRepository, TableVersion tableVersion,
+      MeterRegistry meterRegistry) {
+    this.memberRepository = memberRepository;
+    this.tableVersion = tableVersion;
+    this.singleFlight = new SingleFlight("member.search.coalesce", 1_000, Duration.ofSeconds(3),
+        meterRegistry);
+  }
+
+  public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+    return singleFlight.execute(key("simple", condition, pageable),
+        () -> memberRepository.searchPageSimple(condition, pageable));
+  }
+
+  public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
+      Pageable pageable) {
+    return singleFlight.execute(key("complex", condition, pageable),
+        () -> memberRepository.searchPageComplex(condition, pageable));
+  }
+
+  public Page<MemberTeamDto> searchPageWindow(MemberSearchCondition condition, Pageable pageable) {
+    return singleFlight.execute(key("window", condition, pageable),
+        () -> memberRepository.searchPageWindow(condition, pageable));
+  }
+
+  // 버전은 쿼리 시작 전에 읽는다. 버전은 커밋 후에만 오르므로 같은 키의 쿼리는 이 버전 이후의 데이터를 본다
+  private SearchKey key(String query, MemberSearchCondition condition, Pageable pageable) {
+    return new SearchKey(query, normalize(condition), pageable, tableVersion.current());
+  }
+
+  // 빈 문자열은 조건 없음과 같은 쿼리가 되므로 같은 키로 취급
+  private MemberSearchCondition normalize(MemberSearchCondition condition) {
+    MemberSearchCondition normalized = new MemberSearchCondition();
+    normalized.setUsername(isEmpty(condition.getUsername()) ? null : condition.getUsername());
+    normalized.setUsernameMatch(condition.getUsernameMatch());
+    normalized.setUsernameIgnoreCase(condition.isUsernameIgnoreCase());
+    normalized.setTeamName(isEmpty(condition.getTeamName()) ? null : condition.getTeamName());
+    normalized.setAgeGoe(condition.getAgeGoe());
+    normalized.setAgeLoe(condition.getAgeLoe());
+    return normalized;
+  }
+
+  private record SearchKey(String query, MemberSearchCondition condition, Pageable pageable,
+      long tableVersion) {
+
+  }
+}
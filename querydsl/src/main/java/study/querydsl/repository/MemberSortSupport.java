@@ -0,0 +1,51 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pageable의 Sort를 Querydsl OrderSpecifier로 변환한다. 인덱스가 있는 프로퍼티 하나만 허용하고,
+ * 마지막에 항상 member.id를 같은 방향으로 붙여서 순서를 고정한다. (키셋 페이징과 호환)
+ */
+final class MemberSortSupport {
+
+  // (컬럼, member_id) 인덱스가 있는 프로퍼티만 정렬 허용
+  private static final Map<String, ComparableExpressionBase<?>> INDEXED_PROPERTIES = Map.of(
+      "memberId", member.id,
+      "username", member.username,
+      "age", member.age,
+      "ageRank", member.ageRank);
+
+  private MemberSortSupport() {
+  }
+
+  static OrderSpecifier<?>[] toOrderSpecifiers(Sort sort) {
+    if (sort.isUnsorted()) {
+      return new OrderSpecifier<?>[]{member.id.asc()};
+    }
+
+    List<Sort.Order> orders = sort.toList();
+    if (orders.size() > 1) { // 여러 컬럼 정렬은 인덱스 하나로 처리할 수 없음
+      throw new UnsupportedSortException("정렬 조건은 하나만 지정할 수 있습니다. sort=" + sort);
+    }
+
+    Sort.Order order = orders.get(0);
+    ComparableExpressionBase<?> path = INDEXED_PROPERTIES.get(order.getProperty());
+    if (path == null) {
+      throw new UnsupportedSortException("정렬할 수 없는 프로퍼티입니다. property=" + order.getProperty()
+          + ", 허용=" + INDEXED_PROPERTIES.keySet());
+    }
+
+    if (path == member.id) {
+      return new OrderSpecifier<?>[]{order.isAscending() ? member.id.asc() : member.id.desc()};
+    }
+    return order.isAscending()
+        ? new OrderSpecifier<?>[]{path.asc(), member.id.asc()}
+        : new OrderSpecifier<?>[]{path.desc(), member.id.desc()};
+  }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나로 합친다. 먼저 들어온 호출만 실행하고 나머지는 그 결과를 같이 받는다.
+ * <ul>
+ *   <li>진행 중인 키가 maxKeys 이상이면 합치지 않고 바로 실행 (메모리 제한)</li>
+ *   <li>기다리는 호출이 timeout을 넘기면 직접 실행</li>
+ * </ul>
+ */
+public class SingleFlight {
+
+  private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final int maxKeys;
+  private final Duration timeout;
+
+  private final Counter calls;
+  private final Counter shared;
+  private final Counter timeouts;
+  private final Counter bypassed;
+
+  public SingleFlight(String name, int maxKeys, Duration timeout, MeterRegistry registry) {
+    this.maxKeys = maxKeys;
+    this.timeout = timeout;
+    this.calls = registry.counter(name + ".calls");
+    this.shared = registry.counter(name + ".shared"); // 합쳐진 비율 = shared / calls
+    this.timeouts = registry.counter(name + ".timeouts");
+    this.bypassed = registry.counter(name + ".bypassed");
+    registry.gauge(name + ".in-flight", inFlight, ConcurrentHashMap::size);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(Object key, Supplier<T> supplier) {
+    calls.increment();
+    if (inFlight.size() >= maxKeys) {
+      bypassed.increment();
+      return supplier.get();
+    }
+
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      shared.increment();
+      return (T) await(existing, supplier);
+    }
+
+    try {
+      T result = supplier.get();
+      call.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private Object await(CompletableFuture<Object> call, Supplier<?> supplier) {
+    try {
+      return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      timeouts.increment();
+      return supplier.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
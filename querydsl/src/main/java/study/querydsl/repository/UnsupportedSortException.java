@@ -0,0 +1,13 @@
+package study.querydsl.repository;
+
+/**
+ * 인덱스가 없는 컬럼 정렬 요청. IllegalArgumentException은 리포지토리 프록시에서 스프링 예외로 변환되므로 따로 정의.
+ */
+public class UnsupportedSortException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public UnsupportedSortException(String message) {
+    super(message);
+  }
+}
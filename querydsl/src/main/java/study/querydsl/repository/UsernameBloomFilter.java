@@ -0,0 +1,207 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 존재하는 username의 블룸 필터. false면 DB에 없다는 것이 확실하므로 조회하지 않는다. (true는 있을 수도 있음)
+ * <ul>
+ *   <li>생성 전에는 모든 username을 통과시킨다.</li>
+ *   <li>엔티티 리스너가 insert/update 시 추가하고, 주기적으로 테이블에서 다시 생성한다. (삭제된 이름 정리)</li>
+ *   <li>벌크 연산이나 SQL로 username을 쓰면 필터가 모르므로 invalidate()를 호출해야 한다.
+ *   다음 재생성 전까지는 모든 username을 통과시킨다.</li>
+ * </ul>
+ * 쓰기가 모두 이 프로세스의 JPA를 거친다는 가정이다. 다른 노드나 외부 배치가 member에 insert하면
+ * 다음 재생성 전까지 있는 이름을 없다고 판단하므로 기본은 꺼져 있다. (모든 username을 통과시킴)
+ * 인스턴스가 하나이고 다른 쓰기 경로가 없을 때만 member.username-filter.enabled=true로 켠다.
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter {
+
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+  private static final int MIN_EXPECTED = 10_000;
+  private static final int REBUILD_CHUNK_SIZE = 10_000;
+
+  private final JPAQueryFactory queryFactory;
+  private final TaskExecutor taskExecutor;
+  private final boolean enabled;
+  private final AtomicLong invalidations = new AtomicLong();
+  private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+  private volatile Bits current; // null이면 아직 생성 전이거나 무효화됨
+  private volatile Bits building;
+
+  public UsernameBloomFilter(EntityManager em,
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+      @Value("${member.username-filter.enabled:false}") boolean enabled) {
+    this.queryFactory = new JPAQueryFactory(em);
+    this.taskExecutor = taskExecutor;
+    this.enabled = enabled;
+  }
+
+  public boolean mightContain(String username) {
+    Bits bits = current;
+    return bits == null || bits.mightContain(username);
+  }
+
+  public void put(String username) {
+    if (username == null) {
+      return;
+    }
+    // building을 먼저 읽어야 재생성 중 교체되는 순간에도 새 필터에 빠지지 않는다.
+    Bits next = building;
+    if (next != null) {
+      next.put(username);
+    }
+    Bits bits = current;
+    if (bits != null) {
+      bits.put(username);
+    }
+  }
+
+  /**
+   * 필터를 거치지 않은 쓰기가 있었을 때 호출한다. 다음 재생성이 끝날 때까지 없다는 판단(false)을 하지 않는다.
+   */
+  public void invalidate() {
+    invalidations.incrementAndGet();
+    current = null;
+  }
+
+  /**
+   * 테이블 전체를 읽어서 오래 걸리므로 스케줄러 스레드에서 직접 하지 않고 taskExecutor로 넘긴다.
+   * 스케줄러는 다른 @Scheduled 작업(replica 확인, 나이 반영, 아웃박스 전달)과 공유한다.
+   * 이전 재생성이 아직 끝나지 않았으면 건너뛴다.
+   */
+  @Scheduled(initialDelay = 0, fixedDelayString = "${member.username-filter.rebuild-interval:PT10M}")
+  public void scheduleRebuild() {
+    if (enabled && rebuildRequested.compareAndSet(false, true)) {
+      try {
+        taskExecutor.execute(() -> {
+          try {
+            rebuild();
+          } catch (RuntimeException e) {
+            log.warn("username bloom filter rebuild failed", e);
+          } finally {
+            rebuildRequested.set(false);
+          }
+        });
+      } catch (TaskRejectedException e) {
+        rebuildRequested.set(false);
+        log.warn("username bloom filter rebuild rejected", e);
+      }
+    }
+  }
+
+  public synchronized void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    // 재생성 중에 무효화되면 이미 읽은 구간에 쓰기가 있었을 수 있으므로 결과를 버린다
+    long invalidation = invalidations.get();
+    long count = queryFactory.select(member.count()).from(member).fetchOne();
+    Bits next = new Bits(Math.max(MIN_EXPECTED, count * 2), FALSE_POSITIVE_RATE);
+    building = next;
+
+    Long lastId = null;
+    List<Tuple> chunk;
+    do { // 전체를 한 번에 메모리에 올리지 않도록 member_id 키셋으로 나눠서 조회
+      chunk = queryFactory
+          .select(member.id, member.username)
+          .from(member)
+          .where(lastId != null ? member.id.gt(lastId) : null)
+          .orderBy(member.id.asc())
+          .limit(REBUILD_CHUNK_SIZE)
+          .fetch();
+      for (Tuple row : chunk) {
+        String username = row.get(member.username);
+        if (username != null) {
+          next.put(username);
+        }
+        lastId = row.get(member.id);
+      }
+    } while (chunk.size() == REBUILD_CHUNK_SIZE);
+
+    building = null;
+    current = next;
+    if (invalidations.get() != invalidation) { // 교체 직전에 무효화된 경우까지 잡도록 교체 후에 확인
+      current = null;
+      log.debug("username bloom filter invalidated while rebuilding. discarded");
+      return;
+    }
+    log.debug("username bloom filter rebuilt. members={}, bits={}", count, next.bitSize);
+  }
+
+  static final class Bits {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    Bits(long expected, double falsePositiveRate) {
+      long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+      this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+      this.bitSize = words.length() * 64L;
+      this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expected * Math.log(2)));
+    }
+
+    void put(String value) {
+      long hash = hash64(value);
+      long h1 = fmix64(hash);
+      long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(h1 + i * h2, bitSize);
+        long mask = 1L << bit;
+        words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m); // 동시 put에서 비트 유실 방지
+      }
+    }
+
+    boolean mightContain(String value) {
+      long hash = hash64(value);
+      long h1 = fmix64(hash);
+      long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(h1 + i * h2, bitSize);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // FNV-1a
+    private static long hash64(String value) {
+      long hash = 0xcbf29ce484222325L;
+      for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+        hash ^= b & 0xff; // 부호 확장된 바이트가 상위 비트를 덮지 않도록
+        hash *= 0x100000001b3L;
+      }
+      return hash;
+    }
+
+    // murmur3 finalizer
+    private static long fmix64(long k) {
+      k ^= k >>> 33;
+      k *= 0xff51afd7ed558ccdL;
+      k ^= k >>> 33;
+      k *= 0xc4ceb1a5ad8ae6cbL;
+      k ^= k >>> 33;
+      return k;
+    }
+  }
+}
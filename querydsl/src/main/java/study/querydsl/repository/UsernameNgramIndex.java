@@ -0,0 +1,270 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.UsernameMatch;
+import study.querydsl.entity.Member;
+
+/**
+ * username 트라이그램(3글자) 인덱스. like '%x%'는 인덱스를 못 타서 전체 스캔이 되므로, 메모리에서 후보 member_id를 찾아
+ * member.id in (...) 조건으로 넘긴다. 트라이그램은 소문자로 저장해서 대소문자 무시 검색에도 사용한다.
+ * <ul>
+ *   <li>주기적으로 테이블에서 다시 생성하고, 그 사이에는 엔티티 리스너로 갱신한다.</li>
+ *   <li>검색어가 3글자보다 짧거나(PREFIX는 2글자), 후보가 너무 많거나, 생성 전이거나 무효화되면 null을 반환한다.
+ *   (SQL like로 처리)</li>
+ *   <li>후보는 좁히는 용도이고 like 조건도 같이 넘기므로, 삭제되거나 이름이 바뀐 회원 id가 남아 있어도 결과에는 영향이 없다.</li>
+ *   <li>후보는 대소문자를 구분하지 않고 고른다. 대소문자를 구분하지 않는 collation(MySQL 기본)에서 like가 찾는 행을
+ *   빠뜨리지 않도록 넓게 고르고, 최종 판단은 DB collation으로 하는 like에 맡긴다.</li>
+ * </ul>
+ * 인덱스에 없는 회원은 검색되지 않으므로 기본은 꺼져 있다. (like만 사용)
+ * 인스턴스가 하나이고 모든 쓰기가 이 프로세스의 JPA를 거칠 때만 member.username-index.enabled=true로 켠다.
+ * 벌크 연산이나 SQL로 username을 쓰면 invalidate()를 호출해야 한다.
+ * 악센트를 구분하지 않는 collation(utf8mb4_0900_ai_ci 등)은 é와 e를 같게 보므로 켜지 않는다.
+ */
+@Slf4j
+@Component
+public class UsernameNgramIndex {
+
+  private static final int N = 3;
+  private static final char START = '\u0001'; // 접두사 검색용 시작 표시
+  private static final int MAX_CANDIDATES = 1_000; // IN 절이 이보다 커지면 like가 낫다
+  private static final int BUILD_CHUNK_SIZE = 10_000;
+
+  private final JPAQueryFactory queryFactory;
+  private final TaskExecutor taskExecutor;
+  private final boolean enabled;
+  private final AtomicLong invalidations = new AtomicLong();
+  private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+  private volatile Grams current; // null이면 아직 생성 전이거나 무효화됨
+  private volatile Grams building;
+
+  public UsernameNgramIndex(EntityManager em,
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+      @Value("${member.username-index.enabled:false}") boolean enabled) {
+    this.queryFactory = new JPAQueryFactory(em);
+    this.taskExecutor = taskExecutor;
+    this.enabled = enabled;
+  }
+
+  /**
+   * 테이블 전체를 읽어서 오래 걸리므로 스케줄러 스레드에서 직접 하지 않고 taskExecutor로 넘긴다.
+   * 스케줄러는 다른 @Scheduled 작업(replica 확인, 나이 반영, 아웃박스 전달)과 공유한다.
+   * 이전 재생성이 아직 끝나지 않았으면 건너뛴다.
+   */
+  @Scheduled(initialDelay = 0, fixedDelayString = "${member.username-index.rebuild-interval:PT10M}")
+  public void scheduleRebuild() {
+    if (enabled && rebuildRequested.compareAndSet(false, true)) {
+      try {
+        taskExecutor.execute(() -> {
+          try {
+            rebuild();
+          } catch (RuntimeException e) {
+            log.warn("username ngram index rebuild failed", e);
+          } finally {
+            rebuildRequested.set(false);
+          }
+        });
+      } catch (TaskRejectedException e) {
+        rebuildRequested.set(false);
+        log.warn("username ngram index rebuild rejected", e);
+      }
+    }
+  }
+
+  public synchronized void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    // 재생성 중에 무효화되면 이미 읽은 구간에 쓰기가 있었을 수 있으므로 결과를 버린다
+    long invalidation = invalidations.get();
+    Grams next = new Grams();
+    building = next;
+
+    Long lastId = null;
+    List<Tuple> chunk;
+    do {
+      chunk = queryFactory
+          .select(member.id, member.username)
+          .from(member)
+          .where(lastId != null ? member.id.gt(lastId) : null)
+          .orderBy(member.id.asc())
+          .limit(BUILD_CHUNK_SIZE)
+          .fetch();
+      for (Tuple row : chunk) {
+        lastId = row.get(member.id);
+        next.putIfAbsent(lastId, row.get(member.username));
+      }
+    } while (chunk.size() == BUILD_CHUNK_SIZE);
+
+    building = null;
+    current = next;
+    if (invalidations.get() != invalidation) { // 교체 직전에 무효화된 경우까지 잡도록 교체 후에 확인
+      current = null;
+      log.debug("username ngram index invalidated while rebuilding. discarded");
+      return;
+    }
+    log.debug("username ngram index built. members={}, grams={}", next.usernames.size(),
+        next.postings.size());
+  }
+
+  /**
+   * 인덱스를 거치지 않은 쓰기가 있었을 때 호출한다. 다음 재생성이 끝날 때까지 like로 조회한다.
+   */
+  public void invalidate() {
+    invalidations.incrementAndGet();
+    current = null;
+  }
+
+  public void put(Long id, String username) {
+    if (id == null || username == null) {
+      return;
+    }
+    // building을 먼저 읽어야 재생성 중 교체되는 순간에도 새 인덱스에 빠지지 않는다.
+    Grams next = building;
+    if (next != null) {
+      next.put(id, username);
+    }
+    Grams grams = current;
+    if (grams != null) {
+      grams.put(id, username);
+    }
+  }
+
+  public void remove(Long id) {
+    Grams next = building;
+    if (next != null) {
+      next.remove(id);
+    }
+    Grams grams = current;
+    if (grams != null) {
+      grams.remove(id);
+    }
+  }
+
+  /**
+   * 검색어와 일치하는 member_id 목록. 인덱스로 처리할 수 없으면 null.
+   */
+  public List<Long> search(String keyword, UsernameMatch match) {
+    String lowerKeyword = Member.lowerCase(keyword);
+    String text = match == UsernameMatch.PREFIX ? START + lowerKeyword : lowerKeyword;
+    Grams grams = current;
+    if (grams == null || text.length() < N) {
+      return null;
+    }
+
+    // 가장 작은 목록부터 교집합
+    List<Set<Long>> lists = new ArrayList<>();
+    for (String gram : grams(text)) {
+      Set<Long> ids = grams.postings.get(gram);
+      if (ids == null) {
+        return List.of();
+      }
+      lists.add(ids);
+    }
+    lists.sort(Comparator.comparingInt(Set::size));
+
+    List<Long> result = new ArrayList<>();
+    for (Long id : lists.get(0)) {
+      if (containsAll(lists, id) && matches(grams.usernames.get(id), lowerKeyword, match)) {
+        result.add(id);
+        if (result.size() > MAX_CANDIDATES) {
+          return null;
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean containsAll(List<Set<Long>> lists, Long id) {
+    for (int i = 1; i < lists.size(); i++) {
+      if (!lists.get(i).contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // 트라이그램이 모두 있어도 순서가 다를 수 있으므로 실제 문자열로 확인
+  private boolean matches(String username, String lowerKeyword, UsernameMatch match) {
+    if (username == null) {
+      return false;
+    }
+    String lower = Member.lowerCase(username);
+    return match == UsernameMatch.PREFIX ? lower.startsWith(lowerKeyword) : lower.contains(lowerKeyword);
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + N <= text.length(); i++) {
+      grams.add(text.substring(i, i + N));
+    }
+    return grams;
+  }
+
+  // 인덱스 한 벌. 재생성할 때 새로 만들어서 통째로 교체한다.
+  private static final class Grams {
+
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // 생성 중에 리스너가 먼저 반영한 값이 더 최신이므로 덮어쓰지 않는다.
+    void putIfAbsent(Long id, String username) {
+      if (username != null && usernames.putIfAbsent(id, username) == null) {
+        addPostings(id, username);
+      }
+    }
+
+    void put(Long id, String username) {
+      String previous = usernames.put(id, username);
+      if (username.equals(previous)) {
+        return;
+      }
+      if (previous != null) {
+        removePostings(id, previous);
+      }
+      addPostings(id, username);
+    }
+
+    void remove(Long id) {
+      String previous = usernames.remove(id);
+      if (previous != null) {
+        removePostings(id, previous);
+      }
+    }
+
+    private void addPostings(Long id, String username) {
+      for (String gram : grams(START + Member.lowerCase(username))) {
+        postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id);
+      }
+    }
+
+    private void removePostings(Long id, String username) {
+      for (String gram : grams(START + Member.lowerCase(username))) {
+        postings.computeIfPresent(gram, (k, ids) -> {
+          ids.remove(id);
+          return ids.isEmpty() ? null : ids;
+        });
+      }
+    }
+  }
+}
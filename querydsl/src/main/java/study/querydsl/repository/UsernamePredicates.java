@@ -0,0 +1,49 @@
+package study.querydsl.repository;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.UsernameMatch;
+import study.querydsl.entity.Member;
+
+/**
+ * MemberSearchCondition의 username 조건. PREFIX, CONTAINS는 트라이그램 인덱스(켠 경우)로 찾은 id로 범위를 좁히고
+ * like 조건도 같이 넘겨서 DB가 최종 판단한다. 인덱스로 처리할 수 없으면 like만 넘긴다.
+ * 대소문자 무시 검색은 lower() 대신 username_lower 컬럼을 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernamePredicates {
+
+  private final UsernameNgramIndex usernameNgramIndex;
+
+  public Predicate of(MemberSearchCondition condition) {
+    String username = condition.getUsername();
+    if (isEmpty(username)) {
+      return null;
+    }
+
+    boolean ignoreCase = condition.isUsernameIgnoreCase();
+    String keyword = ignoreCase ? Member.lowerCase(username) : username;
+    StringPath path = ignoreCase ? member.usernameLower : member.username;
+
+    UsernameMatch match = condition.getUsernameMatch();
+    if (match == null || match == UsernameMatch.EXACT) {
+      return path.eq(keyword);
+    }
+
+    BooleanExpression like = match == UsernameMatch.PREFIX
+        ? path.startsWith(keyword) // like 'x%' 는 인덱스 사용 가능
+        : path.contains(keyword);
+    List<Long> ids = usernameNgramIndex.search(keyword, match);
+    // 인덱스가 늦게 반영된 이름 변경과 대소문자 구분은 like(DB collation)에서 걸러진다
+    return ids != null ? member.id.in(ids).and(like) : like;
+  }
+}
@@ -0,0 +1,86 @@
+package study.querydsl.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD 동시 실행 수 제한.
+ * <ul>
+ *   <li>응답 시간이 latencyThreshold 이하이고 제한의 절반 이상 사용 중이면 limit += 1/limit (요청 limit개마다 1 증가)</li>
+ *   <li>임계값을 넘거나 실패하면 limit *= backoffRatio. 한 번 줄인 뒤 latencyThreshold 동안은 다시 줄이지 않음</li>
+ * </ul>
+ * 제한을 넘은 요청은 기다리지 않고 바로 거절한다. (커넥션 풀 앞에 쌓이지 않게)
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+  private long lastDecrease;
+
+  private final Counter accepted;
+  private final Counter rejected;
+  private final Counter dropped;
+
+  public AdaptiveConcurrencyLimiter(String budget, int initialLimit, int minLimit, int maxLimit,
+      Duration latencyThreshold, double backoffRatio, MeterRegistry registry) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.backoffRatio = backoffRatio;
+    this.limit = initialLimit;
+    this.lastDecrease = System.nanoTime() - latencyThresholdNanos;
+
+    Tags tags = Tags.of("budget", budget);
+    this.accepted = registry.counter("member.concurrency.accepted", tags);
+    this.rejected = registry.counter("member.concurrency.rejected", tags);
+    this.dropped = registry.counter("member.concurrency.dropped", tags); // 느리거나 실패한 응답
+    registry.gauge("member.concurrency.limit", tags, this, AdaptiveConcurrencyLimiter::getLimit);
+    registry.gauge("member.concurrency.in-flight", tags, inFlight);
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        rejected.increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        accepted.increment();
+        return true;
+      }
+    }
+  }
+
+  public void release(long latencyNanos, boolean failed) {
+    int current = inFlight.getAndDecrement();
+    synchronized (this) {
+      if (failed || latencyNanos > latencyThresholdNanos) {
+        dropped.increment();
+        long now = System.nanoTime();
+        if (now - lastDecrease >= latencyThresholdNanos) {
+          limit = Math.max(minLimit, limit * backoffRatio);
+          lastDecrease = now;
+        }
+      } else if (current * 2 >= limit) {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+    }
+  }
+
+  public double getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import study.querydsl.config.MemberConcurrencyLimitProperties;
+import study.querydsl.config.MemberConcurrencyLimitProperties.Budget;
+
+/**
+ * 회원 조회 API 부하 차단. 엔드포인트를 가벼운 조회(cheap)와 카운트 쿼리가 붙는 조회(expensive)로 나눠서
+ * 따로 제한하고, 제한을 넘으면 503 + Retry-After로 바로 응답한다.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+  private static final String ACQUIRED = ConcurrencyLimitInterceptor.class.getName() + ".acquired";
+  private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+
+  private final MemberConcurrencyLimitProperties properties;
+  private final Map<String, AdaptiveConcurrencyLimiter> limiters = new HashMap<>();
+
+  public ConcurrencyLimitInterceptor(MemberConcurrencyLimitProperties properties,
+      MeterRegistry registry,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+    this.properties = properties;
+    AdaptiveConcurrencyLimiter cheap = limiter("cheap", properties.getCheap(), poolSize, registry);
+    AdaptiveConcurrencyLimiter expensive = limiter("expensive", properties.getExpensive(), poolSize,
+        registry);
+    properties.getCheap().getPaths().forEach(path -> limiters.put(path, cheap));
+    properties.getExpensive().getPaths().forEach(path -> limiters.put(path, expensive));
+  }
+
+  private AdaptiveConcurrencyLimiter limiter(String name, Budget budget, int poolSize,
+      MeterRegistry registry) {
+    return new AdaptiveConcurrencyLimiter(name, budget.initialLimitFor(poolSize),
+        budget.getMinLimit(), budget.maxLimitFor(poolSize), budget.getLatencyThreshold(),
+        budget.getBackoffRatio(), registry);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (!properties.isEnabled()) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    AdaptiveConcurrencyLimiter limiter = limiters.get(path);
+    if (limiter == null) {
+      return true;
+    }
+    if (!limiter.tryAcquire()) {
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          String.valueOf(properties.getRetryAfter().toSeconds()));
+      return false;
+    }
+    request.setAttribute(ACQUIRED, limiter);
+    request.setAttribute(STARTED, System.nanoTime());
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    if (request.getAttribute(ACQUIRED) instanceof AdaptiveConcurrencyLimiter limiter) {
+      request.removeAttribute(ACQUIRED);
+      long latency = System.nanoTime() - (long) request.getAttribute(STARTED);
+      limiter.release(latency, ex != null || response.getStatus() >= 500);
+    }
+  }
+
+  public AdaptiveConcurrencyLimiter limiterFor(String path) {
+    return limiters.get(path);
+  }
+}
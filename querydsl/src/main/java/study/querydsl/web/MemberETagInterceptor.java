@@ -0,0 +1,69 @@
+package study.querydsl.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import study.querydsl.config.MemberHttpCacheProperties;
+import study.querydsl.config.ReplicaRoutingProperties;
+import study.querydsl.entity.TableVersion;
+
+/**
+ * 회원 조회 API 조건부 GET 처리. ETag = 테이블 버전 + 요청 경로/파라미터.
+ * If-None-Match가 일치하면 컨트롤러(쿼리) 실행 전에 304로 응답한다.
+ * <p>
+ * replica 라우팅을 쓰면 테이블 버전은 primary 커밋 시점에 오르지만 조회는 아직 따라오지 못한 replica에서 할 수 있다.
+ * 그 응답에 새 버전의 ETag를 붙이면 이전 데이터가 다음 변경 전까지 304로 계속 재사용되므로,
+ * 변경 후 replica 지연이 따라잡을 수 있는 시간(maxLag + checkInterval) 동안은 ETag를 붙이지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberETagInterceptor implements HandlerInterceptor {
+
+  private final TableVersion tableVersion;
+  private final MemberHttpCacheProperties properties;
+  private final ObjectProvider<ReplicaRoutingProperties> routingProperties;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (!properties.isEnabled() || !"GET".equals(request.getMethod())) {
+      return true;
+    }
+
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    response.setHeader(HttpHeaders.CACHE_CONTROL, properties.cacheControlFor(path));
+
+    long version = tableVersion.current();
+    if (mayReadStaleReplica()) {
+      return true;
+    }
+    // 304 응답이면 false를 반환해서 컨트롤러를 호출하지 않음
+    return !new ServletWebRequest(request, response).checkNotModified(etag(version, path, request));
+  }
+
+  private boolean mayReadStaleReplica() {
+    ReplicaRoutingProperties routing = routingProperties.getIfAvailable();
+    return routing != null && routing.isEnabled()
+        && tableVersion.changedWithin(routing.staleReadWindow());
+  }
+
+  private String etag(long version, String path, HttpServletRequest request) {
+    StringBuilder key = new StringBuilder(path);
+    // 파라미터 순서가 달라도 같은 ETag가 나오도록 정렬
+    Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+    params.forEach((name, values) -> key.append('&').append(name).append('=')
+        .append(Arrays.toString(values)));
+    String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    return "\"" + version + "-" + hash + "\"";
+  }
+}
@@ -0,0 +1,72 @@
+package study.querydsl.web;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+import study.querydsl.config.ReplicaRoutingProperties;
+import study.querydsl.datasource.ReadYourWrites;
+
+/**
+ * 클라이언트 단위 primary 고정. 스레드 고정(ReadYourWrites)은 요청이 끝나면 사라지므로,
+ * 쓰기를 커밋하면 고정 시각을 쿠키로 내려보내고 다음 요청에서 다시 고정한다. (다른 노드로 가도 유지)
+ * 쿠키 값은 클라이언트가 바꿀 수 있으므로 지금부터 readYourWritesWindow 이내로 자른다.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+  static final String COOKIE_NAME = "RW_PIN";
+
+  private final ObjectProvider<ReplicaRoutingProperties> routingProperties;
+
+  public ReadYourWritesInterceptor(ObjectProvider<ReplicaRoutingProperties> routingProperties) {
+    this.routingProperties = routingProperties;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    ReplicaRoutingProperties properties = routingProperties.getIfAvailable();
+    if (properties == null || !properties.isEnabled()) {
+      return true;
+    }
+    Duration window = properties.getReadYourWritesWindow();
+    Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+    if (cookie != null) {
+      try {
+        long max = System.currentTimeMillis() + window.toMillis();
+        ReadYourWrites.pinUntil(Math.min(Long.parseLong(cookie.getValue()), max));
+      } catch (NumberFormatException e) {
+        // 잘못된 값은 무시
+      }
+    }
+    // 커밋은 컨트롤러 안에서 끝나므로 응답 본문을 쓰기 전에 쿠키를 추가할 수 있다
+    ReadYourWrites.onPin(until -> response.addHeader(HttpHeaders.SET_COOKIE,
+        ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+            .path("/")
+            .httpOnly(true)
+            .maxAge(window)
+            .build().toString()));
+    return true;
+  }
+
+  // 요청 스레드는 재사용되므로 요청이 끝나면 primary 고정을 해제한다.
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    ReadYourWrites.clear();
+  }
+
+  // 비동기 요청(스트리밍)은 afterCompletion이 다른 스레드에서 호출되므로 여기서 해제한다.
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request,
+      HttpServletResponse response, Object handler) {
+    ReadYourWrites.clear();
+  }
+}
@@ -0,0 +1,101 @@
+package study.querydsl;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+/**
+ * 영속성 컨텍스트에 엔티티가 많을 때 플러시 시간과 메모리. 바이트코드 향상 유무를 바꿔가며 실행해서 비교한다.
+ *
+ * <pre>
+ * ./gradlew test --tests '*FlushBenchmarkTest' -Dloadtest=true
+ * ./gradlew test --tests '*FlushBenchmarkTest' -Dloadtest=true -PnoEnhance
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:flushbench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "decorator.datasource.p6spy.enable-logging=false",
+    "member.outbox.poll-interval=PT1H"
+})
+public class FlushBenchmarkTest {
+
+  @Autowired
+  EntityManager em;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Test
+  @DisplayName("플러시 시간과 메모리 측정")
+  public void 플러시_시간과_메모리_측정() throws Exception {
+    int[] sizes = Arrays.stream(System.getProperty("loadtest.entities", "10000,100000").split(","))
+        .mapToInt(Integer::parseInt).toArray();
+    boolean enhanced = ManagedEntity.class.isAssignableFrom(Member.class);
+    for (int size : sizes) {
+      insertMembers(size);
+      transactionTemplate.executeWithoutResult(status -> {
+        measure(enhanced, size);
+        status.setRollbackOnly();
+      });
+    }
+  }
+
+  private void measure(boolean enhanced, int size) {
+    long heapBefore = usedHeap();
+    List<Member> members = new JPAQueryFactory(em).selectFrom(member).fetch();
+    long heapAfter = usedHeap();
+
+    long begin = System.nanoTime();
+    em.flush(); // 변경 없음: 순수한 변경 감지 비용
+    long cleanFlush = System.nanoTime() - begin;
+
+    for (int i = 0; i < members.size(); i += 100) { // 1% 변경
+      members.get(i).setAge(members.get(i).getAge() + 1);
+    }
+    begin = System.nanoTime();
+    em.flush();
+    long dirtyFlush = System.nanoTime() - begin;
+
+    System.out.printf("enhanced=%b entities=%d flush(clean)=%.1fms flush(1%% dirty)=%.1fms"
+            + " heap/entity=%d bytes%n", enhanced, members.size(), cleanFlush / 1e6,
+        dirtyFlush / 1e6, (heapAfter - heapBefore) / size);
+    em.clear();
+  }
+
+  private void insertMembers(int size) {
+    jdbcTemplate.update("delete from member");
+    List<Object[]> rows = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      int age = i % 100;
+      rows.add(new Object[]{(long) i, "member" + i, "member" + i, age, Member.ageRankOf(age)});
+    }
+    jdbcTemplate.batchUpdate("insert into member (member_id, username, username_lower, age, age_rank)"
+        + " values (?, ?, ?, ?, ?)", rows);
+  }
+
+  private long usedHeap() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
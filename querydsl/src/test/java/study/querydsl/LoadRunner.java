@@ -0,0 +1,96 @@
+package study.querydsl;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 부하 테스트 공통 실행기. clients개 스레드가 동시에 시작해서 각자 requests번 호출하고,
+ * 성공한 호출의 응답 시간과 전체 처리 시간을 모은다. 호출이 예외를 던지면 그 클라이언트는 멈추고 오류로 센다.
+ */
+public final class LoadRunner {
+
+  public enum Outcome {
+    OK, SHED, ERROR // SHED: 동시 실행 제한 등으로 거절 (응답 시간에서 제외)
+  }
+
+  @FunctionalInterface
+  public interface Call {
+
+    Outcome call() throws Exception;
+  }
+
+  private LoadRunner() {
+  }
+
+  public static Result run(int clients, int requestsPerClient, Call call)
+      throws InterruptedException {
+    long[] latencies = new long[clients * requestsPerClient];
+    AtomicInteger index = new AtomicInteger();
+    AtomicInteger shed = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(clients);
+    for (int i = 0; i < clients; i++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+          for (int r = 0; r < requestsPerClient; r++) {
+            long begin = System.nanoTime();
+            Outcome outcome = call.call();
+            long latency = System.nanoTime() - begin;
+            switch (outcome) {
+              case OK -> latencies[index.getAndIncrement()] = latency;
+              case SHED -> shed.incrementAndGet();
+              case ERROR -> errors.incrementAndGet();
+            }
+          }
+        } catch (Exception e) {
+          errors.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+
+    long begin = System.nanoTime();
+    start.countDown();
+    done.await();
+    long elapsed = System.nanoTime() - begin;
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    long[] measured = Arrays.copyOf(latencies, index.get());
+    Arrays.sort(measured);
+    return new Result(measured, shed.get(), errors.get(), elapsed);
+  }
+
+  /**
+   * @param latencies 성공한 호출의 응답 시간 (나노초, 정렬됨)
+   */
+  public record Result(long[] latencies, int shed, int errors, long elapsedNanos) {
+
+    public int count() {
+      return latencies.length;
+    }
+
+    // 초당 성공 호출 수
+    public double throughput() {
+      return latencies.length / (elapsedNanos / 1e9);
+    }
+
+    // 밀리초
+    public double percentile(double p) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      return latencies[(int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1)]
+          / 1e6;
+    }
+  }
+}
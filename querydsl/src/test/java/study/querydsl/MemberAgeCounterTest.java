@@ -0,0 +1,75 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberAgeCounter;
+import study.querydsl.repository.MemberRepository;
+
+// flush가 여러 스레드에서 실행되므로 트랜잭션 없이 커밋된 데이터로 테스트
+@SpringBootTest(properties = "member.age-counter.flush-interval=PT1H") // 테스트에서 직접 flush
+public class MemberAgeCounterTest {
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  MemberAgeCounter memberAgeCounter;
+
+  @Test
+  @DisplayName("동시 증가분을 합쳐서 한 번에 반영")
+  public void 동시_증가분을_합쳐서_한_번에_반영() throws Exception {
+    Member member1 = memberRepository.save(new Member("counter1", 10));
+    Member member2 = memberRepository.save(new Member("counter2", 20));
+    try {
+      increment(member1, member2);
+    } finally {
+      memberRepository.deleteAll(List.of(member1, member2));
+    }
+  }
+
+  private void increment(Member member1, Member member2) throws Exception {
+    int threads = 8;
+    int increments = 1000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < increments; i++) {
+          memberAgeCounter.increment(member1.getId(), 1);
+          memberAgeCounter.increment(member2.getId(), 1);
+          if (i % 100 == 0) {
+            memberAgeCounter.flush(); // 증가 중에 flush
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    memberAgeCounter.flush(); // 남은 증가분
+    memberAgeCounter.flush(); // 쉬고 있는 셀 정리
+
+    assertThat(memberAgeCounter.pendingOf(member1.getId())).isZero();
+    Member result1 = memberRepository.findById(member1.getId()).orElseThrow();
+    Member result2 = memberRepository.findById(member2.getId()).orElseThrow();
+    assertThat(result1.getAge()).isEqualTo(10 + threads * increments);
+    assertThat(result2.getAge()).isEqualTo(20 + threads * increments);
+    assertThat(result1.getAgeRank()).isEqualTo(Member.ageRankOf(result1.getAge()));
+  }
+}
@@ -0,0 +1,165 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.web.AdaptiveConcurrencyLimiter;
+import study.querydsl.web.ConcurrencyLimitInterceptor;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MemberControllerTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("ETag가 같으면 304")
+  public void ETag가_같으면_304() throws Exception {
+    String etag = mockMvc.perform(get("/v2/members").param("ageGoe", "10"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(get("/v2/members").param("ageGoe", "10")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    // 파라미터가 다르면 다른 ETag
+    mockMvc.perform(get("/v2/members").param("ageGoe", "20")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("커밋되면 ETag가 바뀐다")
+  public void 커밋되면_ETag가_바뀐다() throws Exception {
+    String etag = mockMvc.perform(get("/v1/members"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    Member member = memberRepository.save(new Member("member1", 10)); // 트랜잭션 커밋
+    try {
+      String changed = mockMvc.perform(get("/v1/members")
+              .header(HttpHeaders.IF_NONE_MATCH, etag))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+      assertThat(changed).isNotEqualTo(etag);
+    } finally {
+      memberRepository.delete(member);
+    }
+  }
+
+  @Test
+  @DisplayName("다른 노드가 커밋해도 ETag가 바뀐다")
+  public void 다른_노드가_커밋해도_ETag가_바뀐다() throws Exception {
+    Member member = memberRepository.save(new Member("member1", 10)); // 버전 행 생성
+    String etag = mockMvc.perform(get("/v1/members"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // 이 프로세스의 리스너를 거치지 않은 다른 노드의 커밋
+    jdbcTemplate.update("update table_version set version = version + 1");
+    try {
+      mockMvc.perform(get("/v1/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+          .andExpect(status().isOk());
+    } finally {
+      memberRepository.delete(member);
+    }
+  }
+
+  @Test
+  @DisplayName("count over() 페이징은 기본으로 꺼져 있음")
+  public void count_over_페이징은_기본으로_꺼져_있음() throws Exception {
+    mockMvc.perform(get("/v4/members"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("동시 실행 제한을 넘으면 503")
+  public void 동시_실행_제한을_넘으면_503() throws Exception {
+    AdaptiveConcurrencyLimiter expensive = concurrencyLimitInterceptor.limiterFor("/v3/members");
+    int held = 0;
+    while (expensive.tryAcquire()) { // 느린 요청들이 자리를 차지하고 있는 상황
+      held++;
+    }
+    try {
+      mockMvc.perform(get("/v3/members"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+      // 가벼운 조회는 예산이 따로
+      mockMvc.perform(get("/v1/members"))
+          .andExpect(status().isOk());
+    } finally {
+      for (int i = 0; i < held; i++) {
+        expensive.release(0, false);
+      }
+    }
+    mockMvc.perform(get("/v3/members"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("동시 실행 제한은 합쳐도 커넥션 풀 크기 이내")
+  public void 동시_실행_제한은_합쳐도_커넥션_풀_크기_이내() throws Exception {
+    List<AdaptiveConcurrencyLimiter> held = new ArrayList<>();
+    for (String path : List.of("/v1/members", "/v3/members")) {
+      AdaptiveConcurrencyLimiter limiter = concurrencyLimitInterceptor.limiterFor(path);
+      while (limiter.tryAcquire()) {
+        held.add(limiter);
+      }
+    }
+    try {
+      assertThat(held).hasSize(10); // 히카리 기본 풀 크기
+    } finally {
+      held.forEach(limiter -> limiter.release(0, false));
+    }
+  }
+
+  @Test
+  @DisplayName("회원 스트리밍")
+  public void 회원_스트리밍() throws Exception {
+    List<Member> members = new ArrayList<>();
+    for (int i = 0; i < 150; i++) { // 청크 크기(100)보다 많이
+      members.add(new Member("stream" + i, i));
+    }
+    memberRepository.saveAll(members); // 스트리밍은 별도 스레드에서 조회하므로 커밋 필요
+    try {
+      MvcResult mvcResult = mockMvc.perform(get("/stream/members").param("ageGoe", "0"))
+          .andExpect(request().asyncStarted())
+          .andReturn();
+      String body = mockMvc.perform(asyncDispatch(mvcResult))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getContentAsString();
+
+      assertThat(body.split("data:")).hasSize(151);
+    } finally {
+      memberRepository.deleteAll(members);
+    }
+  }
+}
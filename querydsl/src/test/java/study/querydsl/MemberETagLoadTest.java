@@ -0,0 +1,93 @@
+package study.querydsl;
+
+import com.sun.management.OperatingSystemMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import study.querydsl.LoadRunner.Outcome;
+
+/**
+ * ETag 조건부 GET 부하 테스트 (로컬 H2). 같은 조회를 매번 새로 받는 클라이언트와 If-None-Match로 재검증하는
+ * 클라이언트를 비교해서 아낀 쿼리 수와 CPU 시간을 출력한다. (싱글 플라이트 영향이 없도록 /v1/members 사용)
+ *
+ * <pre>
+ * ./gradlew test --tests '*MemberETagLoadTest' -Dloadtest=true [-Dloadtest.clients=100 -Dloadtest.requests=50]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:etagloadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "member.concurrency-limit.enabled=false", // 503 없이 전체 비용을 비교
+    "decorator.datasource.p6spy.enable-logging=false"
+})
+public class MemberETagLoadTest {
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  InitMember.InitMemberService initMemberService;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  HttpClient httpClient = HttpClient.newHttpClient();
+
+  @Test
+  @DisplayName("ETag 재검증 부하 테스트")
+  public void ETag_재검증_부하_테스트() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      initMemberService.init(); // 팀 2개, 회원 100명
+    }
+    URI uri = URI.create("http://localhost:" + port + "/v1/members?teamName=teamA&ageGoe=50");
+    String etag = httpClient.send(HttpRequest.newBuilder(uri).build(),
+        HttpResponse.BodyHandlers.discarding()).headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+
+    for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+      run("full GET", HttpRequest.newBuilder(uri).build(), 200);
+      run("If-None-Match", HttpRequest.newBuilder(uri).header(HttpHeaders.IF_NONE_MATCH, etag).build(),
+          304);
+    }
+  }
+
+  private void run(String name, HttpRequest request, int expectedStatus) throws Exception {
+    int clients = Integer.getInteger("loadtest.clients", 100);
+    int requestsPerClient = Integer.getInteger("loadtest.requests", 50);
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    long statementsBefore = statistics.getPrepareStatementCount();
+    long cpuBefore = os.getProcessCpuTime();
+
+    LoadRunner.Result result = LoadRunner.run(clients, requestsPerClient, () ->
+        httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == expectedStatus
+            ? Outcome.OK : Outcome.ERROR);
+
+    // 클라이언트도 같은 프로세스이므로 CPU 시간에는 HTTP 클라이언트 비용도 들어 있다
+    long statements = statistics.getPrepareStatementCount() - statementsBefore;
+    long cpu = os.getProcessCpuTime() - cpuBefore;
+    System.out.printf("%s: requests=%d errors=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms"
+            + " statements/req=%.2f cpu/req=%.0fus%n",
+        name, result.count(), result.errors(), result.throughput(),
+        result.percentile(0.50), result.percentile(0.99),
+        (double) statements / Math.max(1, result.count()),
+        cpu / 1e3 / Math.max(1, result.count()));
+  }
+}
@@ -1,21 +1,38 @@
 package study.querydsl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberRankDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.UsernameMatch;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.DerivedColumnBackfill;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.UnsupportedSortException;
+import study.querydsl.repository.UsernameBloomFilter;
+import study.querydsl.repository.UsernameNgramIndex;
+import study.querydsl.repository.UsernamePredicates;
 
 @SpringBootTest
 @Transactional
@@ -30,6 +47,18 @@ public class MemberJpaRepositoryTest {
   @Autowired
   MemberRepository memberRepository;
 
+  @Autowired
+  UsernameBloomFilter usernameBloomFilter;
+
+  @Autowired
+  UsernameNgramIndex usernameNgramIndex;
+
+  @Autowired
+  DerivedColumnBackfill derivedColumnBackfill;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
   @Test
   @DisplayName("basicTest")
   public void basicTest() throws Exception {
@@ -117,4 +146,288 @@ public class MemberJpaRepositoryTest {
 
     assertThat(result).extracting("username").containsExactly("member4");
   }
+
+  @Test
+  @DisplayName("나이 순위 키셋 페이징")
+  public void 나이_순위_키셋_페이징() throws Exception {
+    Team teamA = new Team("teamA");
+    em.persist(teamA);
+
+    em.persist(new Member("member1", 10, teamA)); // 2
+    em.persist(new Member("member2", 25, teamA)); // 1
+    em.persist(new Member("member3", 40, teamA)); // 3
+    em.persist(new Member("member4", 15, teamA)); // 2
+    em.persist(new Member("member5", 50, teamA)); // 3
+    em.flush();
+    em.clear();
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "ageRank"));
+
+    Slice<MemberRankDto> first = memberRepository.searchByAgeRank(condition, null, null, pageRequest);
+    assertThat(first.hasNext()).isTrue();
+    assertThat(first.getContent()).extracting("username")
+        .containsExactly("member5", "member3", "member4");
+
+    MemberRankDto last = first.getContent().get(first.getNumberOfElements() - 1);
+    Slice<MemberRankDto> second = memberRepository.searchByAgeRank(condition, last.getAgeRank(),
+        last.getMemberId(), pageRequest);
+    assertThat(second.hasNext()).isFalse();
+    assertThat(second.getContent()).extracting("username")
+        .containsExactly("member1", "member2");
+  }
+
+  @Test
+  @DisplayName("나이 순위가 비어 있는 기존 행 채우기")
+  public void 나이_순위가_비어_있는_기존_행_채우기() throws Exception {
+    Member member = new Member("member1", 25);
+    em.persist(member);
+    em.flush();
+    // 컬럼을 추가하기 전에 저장된 행
+    jdbcTemplate.update("update member set age_rank = 0 where member_id = ?", member.getId());
+    em.clear();
+
+    assertThat(derivedColumnBackfill.backfill()).isGreaterThanOrEqualTo(1);
+    assertThat(em.find(Member.class, member.getId()).getAgeRank()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("소문자 username이 비어 있는 기존 행 채우기")
+  public void 소문자_username이_비어_있는_기존_행_채우기() throws Exception {
+    Member member = new Member("Member1", 25);
+    em.persist(member);
+    em.flush();
+    // 컬럼을 추가하기 전에 저장된 행
+    jdbcTemplate.update("update member set username_lower = null where member_id = ?",
+        member.getId());
+    em.clear();
+
+    assertThat(derivedColumnBackfill.backfill()).isGreaterThanOrEqualTo(1);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("MEMBER1");
+    condition.setUsernameIgnoreCase(true);
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactly("Member1");
+  }
+
+  @Test
+  @DisplayName("인덱스 컬럼 정렬과 id 보조 정렬")
+  public void 인덱스_컬럼_정렬과_id_보조_정렬() throws Exception {
+    Team teamA = new Team("teamA");
+    em.persist(teamA);
+
+    Member member1 = new Member("member1", 20, teamA);
+    Member member2 = new Member("member2", 10, teamA);
+    Member member3 = new Member("member3", 20, teamA);
+    em.persist(member1);
+    em.persist(member2);
+    em.persist(member3);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age"));
+
+    Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, pageRequest);
+
+    // 같은 나이는 id 내림차순
+    assertThat(result.getContent()).extracting("username")
+        .containsExactly("member3", "member1", "member2");
+  }
+
+  @Test
+  @DisplayName("인덱스가 없는 컬럼 정렬은 거부")
+  public void 인덱스가_없는_컬럼_정렬은_거부() throws Exception {
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    assertThatThrownBy(() -> memberRepository.searchPageSimple(condition,
+        PageRequest.of(0, 10, Sort.by("teamName"))))
+        .isInstanceOf(UnsupportedSortException.class);
+    assertThatThrownBy(() -> memberRepository.searchPageComplex(condition,
+        PageRequest.of(0, 10, Sort.by("age", "username"))))
+        .isInstanceOf(UnsupportedSortException.class);
+  }
+
+  @Test
+  @DisplayName("윈도우 함수 카운트 페이징")
+  public void 윈도우_함수_카운트_페이징() throws Exception {
+    Team teamA = new Team("teamA");
+    em.persist(teamA);
+    for (int i = 0; i < 5; i++) {
+      em.persist(new Member("member" + i, 10 + i, teamA));
+    }
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("teamA");
+
+    Page<MemberTeamDto> page = memberRepository.searchPageWindow(condition, PageRequest.of(0, 2));
+    assertThat(page.getTotalElements()).isEqualTo(5);
+    assertThat(page.getContent()).extracting("username").containsExactly("member0", "member1");
+
+    // 마지막 페이지를 넘어가면 카운트 쿼리로 전체 개수 확인
+    Page<MemberTeamDto> empty = memberRepository.searchPageWindow(condition, PageRequest.of(5, 2));
+    assertThat(empty.getContent()).isEmpty();
+    assertThat(empty.getTotalElements()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("여러 username 한 번에 조회")
+  public void 여러_username_한_번에_조회() throws Exception {
+    usernameBloomFilter.rebuild(); // 빈 테이블로 생성
+    for (int i = 0; i < 600; i++) { // IN 절 크기(500)보다 많이
+      em.persist(new Member("member" + i, i));
+    }
+
+    List<String> usernames = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      usernames.add("member" + i); // 400개는 없는 이름
+    }
+
+    List<Member> result = memberRepository.findByUsernames(usernames);
+
+    assertThat(result).hasSize(600);
+    assertThat(usernameBloomFilter.mightContain("member599")).isTrue();
+  }
+
+  @Test
+  @DisplayName("필터는 기본으로 꺼져 있어 다른 경로로 쓴 username도 조회")
+  public void 필터는_기본으로_꺼져_있어_다른_경로로_쓴_username도_조회() throws Exception {
+    usernameBloomFilter.rebuild(); // 꺼져 있으면 생성하지 않는다
+    UsernameBloomFilter singleNode = new UsernameBloomFilter(em, new SyncTaskExecutor(), true);
+    singleNode.rebuild(); // 빈 테이블로 생성
+    // 엔티티 리스너를 거치지 않는 쓰기. 다른 노드나 배치가 넣은 행과 같다
+    jdbcTemplate.update("insert into member (member_id, username, username_lower, age, age_rank)"
+        + " values (1000, 'bulk1', 'bulk1', 10, 2)");
+
+    assertThat(memberRepository.findByUsernames(List.of("bulk1"))).extracting("username")
+        .containsExactly("bulk1");
+
+    // 켜면 재생성이나 무효화 전까지 필터가 모르는 이름은 없다고 판단한다
+    assertThat(singleNode.mightContain("bulk1")).isFalse();
+    singleNode.invalidate();
+    assertThat(singleNode.mightContain("bulk1")).isTrue();
+    singleNode.rebuild();
+    assertThat(singleNode.mightContain("bulk1")).isTrue();
+  }
+
+  @Test
+  @DisplayName("username 시작, 포함 검색")
+  public void username_시작_포함_검색() throws Exception {
+    em.persist(new Member("alice", 10));
+    em.persist(new Member("malice", 20));
+    em.persist(new Member("alicia", 30));
+    em.persist(new Member("bob", 40));
+    em.flush(); // 인덱스는 insert 이후에 갱신
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("lic");
+    condition.setUsernameMatch(UsernameMatch.CONTAINS);
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactlyInAnyOrder("alice", "malice", "alicia");
+
+    condition.setUsername("ali");
+    condition.setUsernameMatch(UsernameMatch.PREFIX);
+    assertThat(memberJpaRepository.search(condition)).extracting("username")
+        .containsExactlyInAnyOrder("alice", "alicia");
+
+    condition.setUsername("a"); // 짧은 검색어는 like로 처리
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactlyInAnyOrder("alice", "alicia");
+
+    condition.setUsername("zzz");
+    condition.setUsernameMatch(UsernameMatch.CONTAINS);
+    assertThat(memberRepository.search(condition)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("트라이그램 인덱스는 기본으로 꺼져 있어 다른 경로로 쓴 행도 검색")
+  public void 트라이그램_인덱스는_기본으로_꺼져_있어_다른_경로로_쓴_행도_검색() throws Exception {
+    em.persist(new Member("malice", 20));
+    em.flush();
+    usernameNgramIndex.rebuild(); // 꺼져 있으면 생성하지 않는다
+
+    // 엔티티 리스너를 거치지 않는 쓰기. 다른 노드나 배치가 넣은 행과 같다
+    jdbcTemplate.update("insert into member (member_id, username, username_lower, age, age_rank)"
+        + " values (1000, 'alicia', 'alicia', 30, 1)");
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("lic");
+    condition.setUsernameMatch(UsernameMatch.CONTAINS);
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactlyInAnyOrder("malice", "alicia");
+  }
+
+  @Test
+  @DisplayName("트라이그램 후보는 대소문자를 구분하지 않고 like가 최종 판단")
+  public void 트라이그램_후보는_대소문자를_구분하지_않고_like가_최종_판단() throws Exception {
+    em.persist(new Member("Alice", 10));
+    em.persist(new Member("malice", 20));
+    em.flush();
+    UsernameNgramIndex singleNode = new UsernameNgramIndex(em, new SyncTaskExecutor(), true);
+    singleNode.rebuild();
+    UsernamePredicates predicates = new UsernamePredicates(singleNode);
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+    // 대소문자를 구분하지 않는 collation(MySQL 기본)이면 like가 둘 다 찾으므로 후보에서 빼지 않는다
+    assertThat(singleNode.search("Ali", UsernameMatch.CONTAINS)).hasSize(2);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("Ali");
+    condition.setUsernameMatch(UsernameMatch.CONTAINS);
+    // H2는 대소문자를 구분하므로 like가 걸러낸다
+    assertThat(queryFactory.selectFrom(member).where(predicates.of(condition)).fetch())
+        .extracting("username").containsExactly("Alice");
+
+    // 인덱스를 거치지 않은 이름 변경도 like에서 걸러진다
+    jdbcTemplate.update("update member set username = 'bob', username_lower = 'bob'"
+        + " where username = 'Alice'");
+    assertThat(queryFactory.selectFrom(member).where(predicates.of(condition)).fetch()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("주기적 재생성은 스케줄러 스레드가 아닌 executor에서 실행")
+  public void 주기적_재생성은_스케줄러_스레드가_아닌_executor에서_실행() throws Exception {
+    em.persist(new Member("alice", 10));
+    em.flush();
+    List<Runnable> submitted = new ArrayList<>();
+    UsernameNgramIndex singleNode = new UsernameNgramIndex(em, submitted::add, true);
+
+    singleNode.scheduleRebuild();
+    singleNode.scheduleRebuild(); // 이전 재생성이 끝나지 않았으면 건너뛴다
+    assertThat(submitted).hasSize(1);
+    assertThat(singleNode.search("lic", UsernameMatch.CONTAINS)).isNull(); // 아직 생성 전
+
+    submitted.get(0).run();
+    assertThat(singleNode.search("lic", UsernameMatch.CONTAINS)).hasSize(1);
+    singleNode.scheduleRebuild();
+    assertThat(submitted).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("username 대소문자 무시 검색")
+  public void username_대소문자_무시_검색() throws Exception {
+    em.persist(new Member("Alice", 10));
+    em.persist(new Member("MALICE", 20));
+    em.persist(new Member("bob", 30));
+    em.flush();
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("alice");
+    assertThat(memberRepository.search(condition)).isEmpty(); // 기본은 대소문자 구분
+
+    condition.setUsernameIgnoreCase(true);
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactly("Alice");
+
+    condition.setUsername("aLi");
+    condition.setUsernameMatch(UsernameMatch.CONTAINS);
+    assertThat(memberJpaRepository.search(condition)).extracting("username")
+        .containsExactlyInAnyOrder("Alice", "MALICE");
+
+    condition.setUsername("BO");
+    condition.setUsernameMatch(UsernameMatch.PREFIX);
+    assertThat(memberRepository.search(condition)).extracting("username")
+        .containsExactly("bob");
+
+    Member findMember = memberRepository.findByUsername("MALICE").get(0);
+    assertThat(findMember.getUsernameLower()).isEqualTo("malice");
+  }
 }
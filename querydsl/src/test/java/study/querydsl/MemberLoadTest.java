@@ -0,0 +1,70 @@
+package study.querydsl;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import study.querydsl.LoadRunner.Outcome;
+
+/**
+ * 회원 검색 부하 테스트 (로컬 H2). 같은 조건으로 플랫폼 스레드와 가상 스레드 프로필을 각각 실행해서 비교한다.
+ *
+ * <pre>
+ * ./gradlew test --tests '*MemberLoadTest' -Dloadtest=true
+ * ./gradlew test --tests '*MemberLoadTest' -Dloadtest=true -Dspring.profiles.active=virtual
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "decorator.datasource.p6spy.enable-logging=false"
+})
+public class MemberLoadTest {
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  InitMember.InitMemberService initMemberService;
+
+  @Autowired
+  Environment environment;
+
+  @Test
+  @DisplayName("동시 접속 부하 테스트")
+  public void 동시_접속_부하_테스트() throws Exception {
+    int clients = Integer.getInteger("loadtest.clients", 1000);
+    int requestsPerClient = Integer.getInteger("loadtest.requests", 20);
+    for (int i = 0; i < 10; i++) {
+      initMemberService.init(); // 팀 2개, 회원 100명
+    }
+
+    HttpClient httpClient = HttpClient.newHttpClient();
+    URI uri = URI.create("http://localhost:" + port + "/v3/members?teamName=teamA&ageGoe=50&page=1&size=20");
+    LoadRunner.Result result = LoadRunner.run(clients, requestsPerClient, () -> {
+      int status = httpClient.send(HttpRequest.newBuilder(uri).build(),
+          HttpResponse.BodyHandlers.discarding()).statusCode();
+      if (status == 503) {
+        return Outcome.SHED; // 동시 실행 제한
+      }
+      return status == 200 ? Outcome.OK : Outcome.ERROR;
+    });
+
+    System.out.printf("profiles=%s clients=%d requests=%d shed=%d errors=%d throughput=%.1f req/s"
+            + " p50=%.1fms p99=%.1fms%n",
+        Arrays.toString(environment.getActiveProfiles()), clients, result.count(), result.shed(),
+        result.errors(), result.throughput(), result.percentile(0.50), result.percentile(0.99));
+  }
+}
@@ -0,0 +1,67 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.TableVersion;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchCoalescer;
+
+public class MemberSearchCoalescerTest {
+
+  @Test
+  @DisplayName("커밋 전에 시작한 조회에는 새 버전 요청이 합류하지 않음")
+  public void 커밋_전에_시작한_조회에는_새_버전_요청이_합류하지_않음() throws Exception {
+    MemberRepository memberRepository = mock(MemberRepository.class);
+    TableVersion tableVersion = mock(TableVersion.class);
+    when(tableVersion.current()).thenReturn(1L);
+    MemberSearchCoalescer coalescer = new MemberSearchCoalescer(memberRepository, tableVersion,
+        new SimpleMeterRegistry());
+
+    Page<MemberTeamDto> stale = new PageImpl<>(List.of());
+    Page<MemberTeamDto> fresh = new PageImpl<>(List.of(new MemberTeamDto(1L, "member1", 10, 1L,
+        "teamA")));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(memberRepository.searchPageComplex(any(), any()))
+        .thenAnswer(invocation -> {
+          started.countDown();
+          release.await(); // 커밋 전 데이터를 읽은 느린 쿼리
+          return stale;
+        })
+        .thenReturn(fresh);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    Pageable pageable = PageRequest.of(0, 10);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Page<MemberTeamDto>> before = executor.submit(
+        () -> coalescer.searchPageComplex(condition, pageable));
+    started.await();
+
+    when(tableVersion.current()).thenReturn(2L); // 커밋. 이후 요청의 ETag는 새 버전
+
+    assertThat(coalescer.searchPageComplex(condition, pageable)).isSameAs(fresh);
+    release.countDown();
+    assertThat(before.get()).isSameAs(stale);
+    executor.shutdown();
+    verify(memberRepository, times(2)).searchPageComplex(any(), any());
+  }
+}
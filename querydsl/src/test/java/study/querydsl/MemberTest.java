@@ -7,7 +7,9 @@ import jakarta.persistence.PersistenceContext;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
@@ -20,6 +22,9 @@ public class MemberTest {
   @PersistenceContext
   EntityManager em;
 
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
   @Test
   @DisplayName("멤버와 팀은 성공적으로 생성되어야 한다.")
   public void 멤버와_팀은_성공적으로_생성되어야_한다() throws Exception {
@@ -48,4 +53,28 @@ public class MemberTest {
       System.out.println("member.getTeam() = " + member.getTeam());
     }
   }
+
+  @Test
+  @DisplayName("age_rank SQL은 ageRankOf와 같은 규칙")
+  public void age_rank_SQL은_ageRankOf와_같은_규칙() throws Exception {
+    for (int age : new int[]{Integer.MIN_VALUE, -1, 0, 20, 21, 30, 31, Integer.MAX_VALUE}) {
+      Object rank = em.createNativeQuery("select " + Member.ageRankSql(Integer.toString(age)))
+          .getSingleResult();
+      assertThat(((Number) rank).intValue()).as("age=%d", age).isEqualTo(Member.ageRankOf(age));
+    }
+  }
+
+  @Test
+  @DisplayName("아웃박스를 설정하지 않으면 변경 이벤트를 기록하지 않음")
+  public void 아웃박스를_설정하지_않으면_변경_이벤트를_기록하지_않음() throws Exception {
+    Member member = new Member("noOutbox", 10);
+    em.persist(member);
+    em.flush();
+    member.setAge(11);
+    em.flush();
+
+    Long events = jdbcTemplate.queryForObject(
+        "select count(*) from outbox_event where aggregate_id = ?", Long.class, member.getId());
+    assertThat(events).isZero(); // 비우는 OutboxRelay가 없으므로 쌓이지 않아야 한다
+  }
 }
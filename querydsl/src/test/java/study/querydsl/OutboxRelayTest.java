@@ -0,0 +1,137 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.OutboxEvent;
+import study.querydsl.entity.OutboxEvent.Type;
+import study.querydsl.entity.Team;
+import study.querydsl.outbox.InMemoryOutboxEventSink;
+import study.querydsl.outbox.OutboxRelay;
+import study.querydsl.repository.MemberRepository;
+
+// 아웃박스는 커밋된 데이터만 전달하므로 트랜잭션 없이 테스트
+@SpringBootTest(properties = {
+    "member.outbox.sink=memory",
+    "member.outbox.poll-interval=PT1H" // 테스트에서 직접 relay
+})
+public class OutboxRelayTest {
+
+  @Autowired
+  EntityManager em;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  OutboxRelay outboxRelay;
+
+  @Autowired
+  InMemoryOutboxEventSink sink;
+
+  @Test
+  @DisplayName("변경 이벤트를 커밋 순서대로 전달")
+  public void 변경_이벤트를_커밋_순서대로_전달() throws Exception {
+    Member member = memberRepository.save(new Member("outbox1", 10));
+    Long teamId = transactionTemplate.execute(status -> {
+      Team team = new Team("outboxTeam");
+      em.persist(team);
+      em.find(Member.class, member.getId()).changeTeam(team);
+      return team.getId();
+    });
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        em.find(Member.class, member.getId()).setAge(11);
+        status.setRollbackOnly(); // 롤백된 변경은 기록되지 않음
+      });
+    } finally {
+      transactionTemplate.executeWithoutResult(status -> {
+        em.remove(em.find(Member.class, member.getId()));
+        em.remove(em.find(Team.class, teamId));
+      });
+    }
+
+    outboxRelay.relay();
+
+    List<OutboxEvent> events = new ArrayList<>();
+    sink.drainTo(events);
+    List<String> memberEvents = events.stream()
+        .filter(event -> event.getAggregateType().equals("Member")
+            && event.getAggregateId().equals(member.getId()))
+        .map(event -> event.getEventType() + " " + event.getPayload())
+        .toList();
+    assertThat(memberEvents).containsExactly(
+        Type.CREATED + " {\"id\":" + member.getId() + ",\"username\":\"outbox1\",\"age\":10,\"teamId\":null}",
+        Type.UPDATED + " {\"id\":" + member.getId() + ",\"username\":\"outbox1\",\"age\":10,\"teamId\":" + teamId + "}",
+        Type.DELETED + " {\"id\":" + member.getId() + ",\"username\":\"outbox1\",\"age\":10,\"teamId\":" + teamId + "}");
+    assertThat(events).anyMatch(event -> event.getAggregateType().equals("Team")
+        && event.getAggregateId().equals(teamId) && event.getEventType() == Type.CREATED);
+
+    Long remaining = em.createQuery("select count(e) from OutboxEvent e", Long.class)
+        .getSingleResult();
+    assertThat(remaining).isZero();
+  }
+
+  /**
+   * 쓰기 처리량과 커밋 ~ 전달 지연 측정. 릴레이는 poll-interval 대신 계속 돌린다.
+   * <pre>
+   * ./gradlew test --tests '*OutboxRelayTest' -Dloadtest=true
+   * </pre>
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+  @DisplayName("아웃박스 처리량 측정")
+  public void 아웃박스_처리량_측정() throws Exception {
+    int writers = Integer.getInteger("loadtest.clients", 8);
+    int transactions = Integer.getInteger("loadtest.requests", 500);
+    int total = writers * transactions;
+
+    ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+    List<Long> lags = new ArrayList<>(total);
+    long begin = System.nanoTime();
+    for (int w = 0; w < writers; w++) {
+      int writer = w;
+      executor.execute(() -> {
+        for (int t = 0; t < transactions; t++) {
+          memberRepository.save(new Member("outbox-" + writer + "-" + t, t % 100));
+        }
+      });
+    }
+    while (lags.size() < total) {
+      outboxRelay.relay();
+      List<OutboxEvent> events = new ArrayList<>();
+      sink.drainTo(events);
+      LocalDateTime now = LocalDateTime.now();
+      for (OutboxEvent event : events) {
+        lags.add(Duration.between(event.getCreatedAt(), now).toNanos());
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    long[] sorted = lags.stream().mapToLong(Long::longValue).sorted().toArray();
+    System.out.printf("outbox writers=%d events=%d throughput=%.1f events/s lag p50=%.1fms"
+            + " p99=%.1fms%n", writers, total, total / (elapsed / 1e9),
+        sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    assertThat(Arrays.stream(sorted).count()).isEqualTo(total);
+  }
+}
@@ -0,0 +1,108 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.LoadRunner.Outcome;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+/**
+ * 페이징 처리량 비교 (H2 MySQL 모드). 내용 + 카운트 쿼리 두 번(searchPageComplex)과
+ * count(*) over() 한 번(searchPageWindow)을 같은 조건으로 동시에 실행해서 초당 처리 수와 요청당 쿼리 수를 출력한다.
+ * H2는 네트워크 왕복이 없으므로 쿼리 한 번 줄인 효과가 작게 나오고, count(*) over()는 limit 전에 조건에 맞는 행을
+ * 모두 만들어야 해서 결과가 많을수록 느려진다. 운영 판단은 MySQL에서 같은 테스트로 확인한다.
+ *
+ * <pre>
+ * ./gradlew test --tests '*PagingBenchmarkTest' -Dloadtest=true [-Dloadtest.members=100000 -Dloadtest.threads=8]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:pagingbench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "decorator.datasource.p6spy.enable-logging=false",
+    "member.outbox.poll-interval=PT1H"
+})
+public class PagingBenchmarkTest {
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @DisplayName("페이징 처리량 비교")
+  public void 페이징_처리량_비교() throws Exception {
+    int size = Integer.getInteger("loadtest.members", 100_000);
+    insertMembers(size);
+    System.out.printf("members=%d supportsWindowFunctions=%b%n", size,
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect().supportsWindowFunctions());
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("teamA");
+    condition.setAgeGoe(30);
+    Pageable firstPage = PageRequest.of(0, 20);
+    Pageable deepPage = PageRequest.of(size / 200, 20); // 결과의 중간쯤
+
+    for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+      for (Pageable pageable : List.of(firstPage, deepPage)) {
+        run("two queries", pageable, p -> memberRepository.searchPageComplex(condition, p));
+        run("count over()", pageable, p -> memberRepository.searchPageWindow(condition, p));
+      }
+    }
+  }
+
+  private void run(String name, Pageable pageable, Consumer<Pageable> search) throws Exception {
+    int threads = Integer.getInteger("loadtest.threads", 8);
+    int iterations = Integer.getInteger("loadtest.iterations", 50);
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    long statementsBefore = statistics.getPrepareStatementCount();
+
+    LoadRunner.Result result = LoadRunner.run(threads, iterations, () -> {
+      search.accept(pageable);
+      return Outcome.OK;
+    });
+
+    System.out.printf("%-12s page=%-4d throughput=%.1f pages/s statements/page=%.2f errors=%d%n",
+        name, pageable.getPageNumber(), result.throughput(),
+        (double) (statistics.getPrepareStatementCount() - statementsBefore)
+            / Math.max(1, result.count()), result.errors());
+  }
+
+  private void insertMembers(int size) {
+    jdbcTemplate.update("delete from member");
+    jdbcTemplate.update("delete from team");
+    jdbcTemplate.update("insert into team (team_id, name) values (1, 'teamA'), (2, 'teamB')");
+    List<Object[]> rows = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      int age = i % 100;
+      rows.add(new Object[]{(long) i, "member" + i, "member" + i, age, Member.ageRankOf(age),
+          (long) (i % 2 + 1)});
+    }
+    jdbcTemplate.batchUpdate("insert into member"
+        + " (member_id, username, username_lower, age, age_rank, team_id) values (?, ?, ?, ?, ?, ?)",
+        rows);
+  }
+}
@@ -0,0 +1,148 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.config.ReplicaRoutingConfig;
+import study.querydsl.datasource.ReplicaRoutingDataSource;
+import study.querydsl.entity.TableVersion;
+
+/**
+ * 라우팅 설정을 켠 전체 스프링 구성. replica는 같은 H2 DB를 가리키고, 풀마다 connection-init-sql로 이름을 남겨서
+ * 어느 풀에서 실행됐는지 확인한다. (풀 설정이 적용됐는지도 같이 확인된다)
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.hikari.maximum-pool-size=7",
+    "spring.datasource.hikari.connection-init-sql=SET @node = 'primary'",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "member.datasource.routing.enabled=true",
+    "member.datasource.routing.read-your-writes-window=PT30S",
+    "member.datasource.routing.lag-query=select 0",
+    "member.datasource.routing.max-lag=PT2S",
+    "member.datasource.routing.replicas[0].url=jdbc:h2:mem:routing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "member.datasource.routing.replicas[0].username=sa",
+    "member.datasource.routing.replicas[0].password=",
+    "member.datasource.routing.replicas[0].hikari.maximum-pool-size=3",
+    "member.datasource.routing.replicas[0].hikari.connection-init-sql=SET @node = 'replica0'"
+})
+@AutoConfigureMockMvc
+@Import(ReplicaRoutingConfigTest.NodeController.class)
+public class ReplicaRoutingConfigTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  DataSource dataSource;
+
+  @Autowired
+  TableVersion tableVersion;
+
+  @Test
+  @DisplayName("풀마다 hikari 설정 적용")
+  public void 풀마다_hikari_설정_적용() throws Exception {
+    Map<Object, DataSource> pools = dataSource.unwrap(ReplicaRoutingDataSource.class)
+        .getResolvedDataSources();
+
+    assertThat(((HikariDataSource) pools.get("primary")).getMaximumPoolSize()).isEqualTo(7);
+    HikariDataSource replica = (HikariDataSource) pools.get("replica0");
+    assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+    assertThat(replica.isReadOnly()).isTrue();
+  }
+
+  @Test
+  @DisplayName("쓰기 후 다음 요청도 쿠키로 primary에서 읽기")
+  public void 쓰기_후_다음_요청도_쿠키로_primary에서_읽기() throws Exception {
+    mockMvc.perform(get("/test/node")).andExpect(content().string("replica0"));
+
+    Cookie pin = mockMvc.perform(post("/test/node"))
+        .andExpect(content().string("primary"))
+        .andExpect(cookie().exists("RW_PIN"))
+        .andReturn().getResponse().getCookie("RW_PIN");
+
+    // 같은 스레드라도 요청이 끝나면 스레드 고정은 풀리고, 쿠키를 보낸 클라이언트만 primary
+    mockMvc.perform(get("/test/node")).andExpect(content().string("replica0"));
+    mockMvc.perform(get("/test/node").cookie(pin)).andExpect(content().string("primary"));
+
+    // 지금부터 window(30초)보다 먼 시각은 잘라서 사용
+    Cookie forged = new Cookie("RW_PIN", Long.toString(Long.MAX_VALUE));
+    mockMvc.perform(get("/test/node").cookie(forged)).andExpect(content().string("primary"));
+  }
+
+  @Test
+  @DisplayName("변경 직후에는 ETag를 붙이지 않음")
+  public void 변경_직후에는_ETag를_붙이지_않음() throws Exception {
+    tableVersion.increment(); // primary 커밋. replica는 아직 이전 데이터일 수 있다
+
+    mockMvc.perform(get("/v1/members"))
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+
+  @Test
+  @DisplayName("지연 기준이 없으면 시작하지 않음")
+  public void 지연_기준이_없으면_시작하지_않음() throws Exception {
+    new ApplicationContextRunner()
+        .withUserConfiguration(ReplicaRoutingConfig.class)
+        .withBean(DataSourceProperties.class)
+        .withPropertyValues("member.datasource.routing.enabled=true",
+            "member.datasource.routing.lag-query=select 0")
+        .run(context -> assertThat(context).hasFailed()
+            .getFailure().rootCause().hasMessageContaining("max-lag"));
+  }
+
+  @RestController
+  static class NodeController {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+
+    NodeController(DataSource dataSource, PlatformTransactionManager transactionManager) {
+      this.jdbcTemplate = new JdbcTemplate(dataSource);
+      this.readOnly = new TransactionTemplate(transactionManager);
+      this.readOnly.setReadOnly(true);
+      this.readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @GetMapping("/test/node")
+    public String read() {
+      return readOnly.execute(status -> node());
+    }
+
+    @PostMapping("/test/node")
+    public String write() {
+      return readWrite.execute(status -> node());
+    }
+
+    private String node() {
+      return jdbcTemplate.queryForObject("select @node", String.class);
+    }
+  }
+}
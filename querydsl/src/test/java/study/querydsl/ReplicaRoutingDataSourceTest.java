@@ -0,0 +1,101 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.datasource.ReadYourWrites;
+import study.querydsl.datasource.ReplicaRoutingDataSource;
+import study.querydsl.datasource.ReplicaRoutingDataSource.Selection;
+
+public class ReplicaRoutingDataSourceTest {
+
+  ReplicaRoutingDataSource routingDataSource;
+  JdbcTemplate jdbcTemplate;
+  TransactionTemplate readWrite;
+  TransactionTemplate readOnly;
+
+  @BeforeEach
+  public void before() {
+    DataSource primary = node("primary");
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    replicas.put("replica0", node("replica0"));
+    replicas.put("replica1", node("replica1"));
+    routingDataSource = new ReplicaRoutingDataSource(primary, replicas, Selection.ROUND_ROBIN,
+        "select lag from node", Duration.ofSeconds(1), true, Duration.ofSeconds(5));
+
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  @AfterEach
+  public void after() {
+    ReadYourWrites.clear();
+  }
+
+  @Test
+  @DisplayName("읽기 전용 트랜잭션은 replica, 쓰기는 primary")
+  public void 읽기_전용_트랜잭션은_replica_쓰기는_primary() throws Exception {
+    assertThat(nodeIn(readOnly)).isEqualTo("replica0");
+    assertThat(nodeIn(readOnly)).isEqualTo("replica1");
+    assertThat(nodeIn(readWrite)).isEqualTo("primary");
+    assertThat(currentNode()).isEqualTo("primary"); // 트랜잭션 없음
+  }
+
+  @Test
+  @DisplayName("쓰기를 커밋한 스레드는 primary에서 읽기")
+  public void 쓰기를_커밋한_스레드는_primary에서_읽기() throws Exception {
+    readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set lag = 0"));
+    assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+    ReadYourWrites.clear();
+    assertThat(nodeIn(readOnly)).startsWith("replica");
+  }
+
+  @Test
+  @DisplayName("지연된 replica는 제외하고 모두 지연되면 primary")
+  public void 지연된_replica는_제외하고_모두_지연되면_primary() throws Exception {
+    new JdbcTemplate(node("replica0")).update("update node set lag = 10");
+    routingDataSource.checkReplicas();
+    for (int i = 0; i < 4; i++) {
+      assertThat(nodeIn(readOnly)).isEqualTo("replica1");
+    }
+
+    new JdbcTemplate(node("replica1")).update("update node set lag = 10");
+    routingDataSource.checkReplicas();
+    assertThat(nodeIn(readOnly)).isEqualTo("primary");
+  }
+
+  private String nodeIn(TransactionTemplate transactionTemplate) {
+    return transactionTemplate.execute(status -> currentNode());
+  }
+
+  private String currentNode() {
+    return jdbcTemplate.queryForObject("select name from node", String.class);
+  }
+
+  private static DataSource node(String name) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table if not exists node (name varchar(20), lag int)");
+    jdbcTemplate.update("delete from node");
+    jdbcTemplate.update("insert into node values (?, 0)", name);
+    return dataSource;
+  }
+}
@@ -0,0 +1,94 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.querydsl.repository.SingleFlight;
+
+public class SingleFlightTest {
+
+  @Test
+  @DisplayName("동시에 들어온 같은 키 요청은 한 번만 실행")
+  public void 동시에_들어온_같은_키_요청은_한_번만_실행() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SingleFlight singleFlight = new SingleFlight("test", 100, Duration.ofSeconds(5), registry);
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<String> slowQuery = () -> {
+      executions.incrementAndGet();
+      started.countDown();
+      await(release);
+      return "result";
+    };
+
+    int burst = 100;
+    ExecutorService executor = Executors.newFixedThreadPool(burst);
+    List<Future<String>> results = new ArrayList<>();
+    results.add(executor.submit(() -> singleFlight.execute("key", slowQuery)));
+    await(started); // 첫 요청이 쿼리를 실행하는 중
+
+    for (int i = 1; i < burst; i++) {
+      results.add(executor.submit(() -> singleFlight.execute("key", slowQuery)));
+    }
+    // 나머지 요청이 모두 진행 중인 호출에 합류할 때까지 대기 (합치지 못하고 직접 실행하면 아래 검증에서 실패)
+    while (registry.counter("test.shared").count() < burst - 1 && executions.get() == 1) {
+      Thread.onSpinWait();
+    }
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get()).isEqualTo("result");
+    }
+    executor.shutdown();
+
+    double shared = registry.counter("test.shared").count();
+    System.out.printf("burst=%d executions=%d coalescing ratio=%.2f%n", burst, executions.get(),
+        shared / registry.counter("test.calls").count());
+    assertThat(executions.get()).isEqualTo(1);
+    assertThat(shared).isEqualTo(burst - 1);
+  }
+
+  @Test
+  @DisplayName("기다리다 시간이 초과되면 직접 실행")
+  public void 기다리다_시간이_초과되면_직접_실행() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SingleFlight singleFlight = new SingleFlight("test", 100, Duration.ofMillis(50), registry);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<String> slow = executor.submit(() -> singleFlight.execute("key", () -> {
+      started.countDown();
+      await(release);
+      return "slow";
+    }));
+    await(started);
+
+    assertThat(singleFlight.execute("key", () -> "fallback")).isEqualTo("fallback");
+    assertThat(registry.counter("test.timeouts").count()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(slow.get()).isEqualTo("slow");
+    executor.shutdown();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
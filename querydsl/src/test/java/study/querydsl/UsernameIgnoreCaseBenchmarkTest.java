@@ -0,0 +1,92 @@
+package study.querydsl;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+
+/**
+ * 대소문자 무시 username 검색 비교 (H2 MySQL 모드). lower(username) = ? 는 함수 때문에 인덱스를 못 타고 전체 스캔,
+ * username_lower = ? 는 (username_lower, member_id) 인덱스 탐색이다. 실행 계획과 평균 시간을 출력한다.
+ *
+ * <pre>
+ * ./gradlew test --tests '*UsernameIgnoreCaseBenchmarkTest' -Dloadtest=true [-Dloadtest.members=1000000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ignorecasebench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "decorator.datasource.p6spy.enable-logging=false",
+    "member.outbox.poll-interval=PT1H"
+})
+public class UsernameIgnoreCaseBenchmarkTest {
+
+  @Autowired
+  EntityManager em;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("대소문자 무시 검색 스캔과 인덱스 탐색 비교")
+  public void 대소문자_무시_검색_스캔과_인덱스_탐색_비교() throws Exception {
+    int size = Integer.getInteger("loadtest.members", 1_000_000);
+    insertMembers(size);
+    String keyword = Member.lowerCase("Member" + size / 2);
+    System.out.println(jdbcTemplate.queryForObject(
+        "explain select member_id from member where lower(username) = ?", String.class, keyword));
+    System.out.println(jdbcTemplate.queryForObject(
+        "explain select member_id from member where username_lower = ?", String.class, keyword));
+
+    for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+      measure("lower(username)", size, k -> member.username.lower().eq(k));
+      measure("username_lower", size, member.usernameLower::eq);
+    }
+  }
+
+  private void measure(String name, int size, Function<String, Predicate> predicate) {
+    int iterations = Integer.getInteger("loadtest.iterations", 20);
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+    int rows = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      // H2는 같은 파라미터로 다시 실행하면 이전 결과를 재사용하므로 매번 다른 이름으로 조회
+      String keyword = "member" + ThreadLocalRandom.current().nextInt(1, size + 1);
+      rows += queryFactory.select(member.id).from(member).where(predicate.apply(keyword)).fetch()
+          .size();
+    }
+    System.out.printf("%-16s members=%d rows=%d avg=%.3fms%n", name, size, rows,
+        (System.nanoTime() - begin) / 1e6 / iterations);
+  }
+
+  private void insertMembers(int size) {
+    jdbcTemplate.update("delete from member");
+    List<Object[]> rows = new ArrayList<>(10_000);
+    for (int i = 1; i <= size; i++) {
+      String username = "Member" + i;
+      int age = i % 100;
+      rows.add(new Object[]{(long) i, username, Member.lowerCase(username), age,
+          Member.ageRankOf(age)});
+      if (rows.size() == 10_000 || i == size) {
+        jdbcTemplate.batchUpdate("insert into member"
+            + " (member_id, username, username_lower, age, age_rank) values (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package study.querydsl;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.UsernameMatch;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.UsernameNgramIndex;
+import study.querydsl.repository.UsernamePredicates;
+
+/**
+ * username 포함 검색 비교 (H2 MySQL 모드, 기본 100만 행). like '%x%' 전체 스캔과
+ * 트라이그램 인덱스 후보 id in (...) + like를 검색어별로 비교하고, 인덱스 생성 시간과 힙 사용량을 출력한다.
+ *
+ * <pre>
+ * ./gradlew test --tests '*UsernameSearchBenchmarkTest' -Dloadtest=true [-Dloadtest.members=1000000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:usernamebench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "decorator.datasource.p6spy.enable-logging=false",
+    "member.outbox.poll-interval=PT1H",
+    "member.username-index.enabled=true"
+})
+public class UsernameSearchBenchmarkTest {
+
+  @Autowired
+  EntityManager em;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  UsernameNgramIndex usernameNgramIndex;
+
+  @Autowired
+  UsernamePredicates usernamePredicates;
+
+  @Test
+  @DisplayName("username 포함 검색 비교")
+  public void username_포함_검색_비교() throws Exception {
+    int size = Integer.getInteger("loadtest.members", 1_000_000);
+    insertMembers(size);
+
+    long heapBefore = usedHeap();
+    long begin = System.nanoTime();
+    usernameNgramIndex.rebuild();
+    System.out.printf("members=%d index build=%.0fms heap=%dMB%n", size,
+        (System.nanoTime() - begin) / 1e6, (usedHeap() - heapBefore) / 1024 / 1024);
+
+    JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+    // 결과 1건 / 수십 건 / 후보가 너무 많아 like로 넘기는 경우
+    for (String keyword : List.of("x123456", "99999", "x12")) {
+      MemberSearchCondition condition = new MemberSearchCondition();
+      condition.setUsername(keyword);
+      condition.setUsernameMatch(UsernameMatch.CONTAINS);
+      Predicate indexed = usernamePredicates.of(condition);
+      for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+        measure("like", keyword, () -> queryFactory.select(member.id).from(member)
+            .where(member.username.contains(keyword)).fetch().size());
+        measure("ngram+like", keyword, () -> queryFactory.select(member.id).from(member)
+            .where(usernamePredicates.of(condition)).fetch().size());
+      }
+      System.out.printf("  %s -> %s%n", keyword, indexed.toString().length() > 80
+          ? indexed.toString().substring(0, 80) + "..." : indexed);
+    }
+  }
+
+  private void measure(String name, String keyword, Supplier<Integer> search) {
+    int iterations = Integer.getInteger("loadtest.iterations", 10);
+    int rows = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      rows = search.get();
+    }
+    System.out.printf("%-10s keyword=%-8s rows=%-5d avg=%.2fms%n", name, keyword, rows,
+        (System.nanoTime() - begin) / 1e6 / iterations);
+  }
+
+  private void insertMembers(int size) {
+    jdbcTemplate.update("delete from member");
+    List<Object[]> rows = new ArrayList<>(10_000);
+    for (int i = 1; i <= size; i++) {
+      String username = "user" + Integer.toHexString(i * 31) + "x" + i;
+      int age = i % 100;
+      rows.add(new Object[]{(long) i, username, username, age, Member.ageRankOf(age)});
+      if (rows.size() == 10_000 || i == size) {
+        jdbcTemplate.batchUpdate("insert into member"
+            + " (member_id, username, username_lower, age, age_rank) values (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+      }
+    }
+  }
+
+  private long usedHeap() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -2,12 +2,17 @@ package com.study.security;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class SecurityApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(SecurityApplication.class, args);
+    ConfigurableApplicationContext context = SpringApplication.run(SecurityApplication.class, args);
+    // CDS 학습 실행(./gradlew cdsArchive): 시작만 하고 종료한다. 부트 3.2 이상은 이 코드 없이 같은 프로퍼티로 동작
+    if ("onRefresh".equals(System.getProperty("spring.context.exit"))) {
+      System.exit(SpringApplication.exit(context));
+    }
   }
 
 }
@@ -0,0 +1,39 @@
+package com.study.security.auth;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * VerifiedCredentialCache에 있으면 비밀번호 해싱 없이 통과시키는 DaoAuthenticationProvider.
+ * 계정 상태(잠김, 비활성) 검사는 그대로 매번 한다. cache가 null이면 DaoAuthenticationProvider와 같다.
+ */
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+  private final VerifiedCredentialCache cache;
+
+  public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+      PasswordEncoder passwordEncoder, VerifiedCredentialCache cache) {
+    super(passwordEncoder);
+    setUserDetailsService(userDetailsService);
+    this.cache = cache;
+  }
+
+  @Override
+  protected void additionalAuthenticationChecks(UserDetails userDetails,
+      UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+    if (cache == null || authentication.getCredentials() == null) {
+      super.additionalAuthenticationChecks(userDetails, authentication);
+      return;
+    }
+    String rawPassword = authentication.getCredentials().toString();
+    if (cache.isVerified(userDetails.getUsername(), userDetails.getPassword(), rawPassword)) {
+      return;
+    }
+    super.additionalAuthenticationChecks(userDetails, authentication); // 실패하면 예외
+    cache.put(userDetails.getUsername(), userDetails.getPassword(), rawPassword);
+  }
+}
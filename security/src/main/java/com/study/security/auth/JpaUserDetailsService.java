@@ -0,0 +1,191 @@
+package com.study.security.auth;
+
+import com.study.security.cache.BoundedTtlCache;
+import com.study.security.entity.Role;
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * users 테이블 기반 UserDetailsService + 조회 결과 캐시.
+ * <ul>
+ *   <li>캐시: ttl 동안 유지하고 max-size를 넘으면 먼저 넣은 것부터 지운다. (BoundedTtlCache)</li>
+ *   <li>캐시된 값을 그대로 주면 인증 후 eraseCredentials()가 캐시의 비밀번호까지 지우므로 항상 복사본을 반환한다.</li>
+ *   <li>미스: batch-window 동안 들어온 미스를 모아 한 번의 in 쿼리로 조회한다. 같은 username 동시 미스는 한 번만 조회.</li>
+ *   <li>비밀번호/권한 변경 시 UserCacheEvictionListener가 evict()를 호출한다.</li>
+ *   <li>캐시와 조회 결과는 소문자 username으로 찾는다. (MySQL 기본 collation은 대소문자를 구분하지 않아서 ALICE로 alice가 조회됨)</li>
+ * </ul>
+ * 메트릭: security.user-cache.hits / misses / db-queries (로그인당 DB 조회 = db-queries / (hits + misses))
+ */
+@Service
+public class JpaUserDetailsService implements UserDetailsService {
+
+  private static final int MAX_BATCH_SIZE = 100;
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final long batchWindowNanos;
+
+  private final BoundedTtlCache<String, UserDetails> cache;
+  private final ConcurrentHashMap<String, CompletableFuture<UserDetails>> loading =
+      new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<String> batch = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean batchOpen = new AtomicBoolean();
+  private final AtomicLong evictions = new AtomicLong(); // 조회 중에 무효화되면 이전 값을 캐시하지 않도록
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter dbQueries;
+
+  public JpaUserDetailsService(UserRepository userRepository,
+      TransactionTemplate transactionTemplate, MeterRegistry registry,
+      @Value("${security.user-cache.ttl:5m}") Duration ttl,
+      @Value("${security.user-cache.max-size:10000}") int maxSize,
+      @Value("${security.user-cache.batch-window:2ms}") Duration batchWindow) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.cache = new BoundedTtlCache<>(maxSize, ttl);
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.hits = registry.counter("security.user-cache.hits");
+    this.misses = registry.counter("security.user-cache.misses");
+    this.dbQueries = registry.counter("security.user-cache.db-queries");
+    registry.gauge("security.user-cache.size", cache, BoundedTtlCache::size);
+  }
+
+  @Override
+  public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetails cached = cache.get(key(username));
+    if (cached != null) {
+      hits.increment();
+      return copy(cached);
+    }
+    misses.increment();
+    UserDetails user = load(username);
+    if (user == null) {
+      throw new UsernameNotFoundException(username);
+    }
+    return copy(user);
+  }
+
+  public void evict(String username) {
+    evictions.incrementAndGet();
+    cache.remove(key(username));
+  }
+
+  public void evictAll() {
+    evictions.incrementAndGet();
+    cache.clear();
+  }
+
+  private UserDetails load(String username) {
+    CompletableFuture<UserDetails> future = new CompletableFuture<>();
+    CompletableFuture<UserDetails> existing = loading.putIfAbsent(key(username), future);
+    if (existing != null) {
+      return await(existing);
+    }
+
+    batch.add(username);
+    // 큐에 넣은 뒤 CAS: 실패했다면 아직 열린 배치가 있으므로 그 배치가 가져간다.
+    if (batchOpen.compareAndSet(false, true)) {
+      if (batchWindowNanos > 0) {
+        LockSupport.parkNanos(batchWindowNanos); // 다른 미스가 모이기를 기다림
+      }
+      batchOpen.set(false);
+      loadBatch();
+    }
+    return await(future);
+  }
+
+  private void loadBatch() {
+    List<String> usernames = new ArrayList<>();
+    String username;
+    while ((username = batch.poll()) != null) {
+      usernames.add(username);
+    }
+    for (int from = 0; from < usernames.size(); from += MAX_BATCH_SIZE) {
+      loadChunk(usernames.subList(from, Math.min(usernames.size(), from + MAX_BATCH_SIZE)));
+    }
+  }
+
+  private void loadChunk(List<String> usernames) {
+    Map<String, UserDetails> found = new HashMap<>();
+    long evictionsBefore = evictions.get();
+    Throwable failure = null;
+    try {
+      dbQueries.increment();
+      transactionTemplate.executeWithoutResult(status -> {
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+          found.put(key(user.getUsername()), toUserDetails(user));
+        }
+      });
+      if (evictions.get() == evictionsBefore) {
+        found.forEach(cache::put);
+      }
+    } catch (Throwable e) {
+      failure = e;
+    } finally {
+      // 어떤 예외가 나도 기다리는 스레드가 loading에 남지 않도록 완료시킨다
+      for (String username : usernames) {
+        CompletableFuture<UserDetails> future = loading.remove(key(username));
+        if (future == null) {
+          continue;
+        }
+        if (failure != null) {
+          future.completeExceptionally(failure);
+        } else {
+          future.complete(found.get(key(username)));
+        }
+      }
+    }
+  }
+
+  private UserDetails await(CompletableFuture<UserDetails> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+  private static String key(String username) {
+    return username.toLowerCase(Locale.ROOT);
+  }
+
+  private static UserDetails toUserDetails(User user) {
+    return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+        .password(user.getPassword())
+        .disabled(!user.isEnabled())
+        .authorities(user.getRoles().stream().map(Role::getName).toArray(String[]::new))
+        .build();
+  }
+
+  private static UserDetails copy(UserDetails user) {
+    return org.springframework.security.core.userdetails.User.withUserDetails(user).build();
+  }
+}
@@ -0,0 +1,94 @@
+package com.study.security.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 해싱(bcrypt 등)을 전용 스레드 풀에서 실행하는 PasswordEncoder.
+ * <ul>
+ *   <li>해싱 동시 실행 수를 threads(기본: 코어 수)로 제한해서 로그인이 몰려도 다른 요청이 쓸 CPU를 남긴다.</li>
+ *   <li>대기 큐가 queue-capacity를 넘으면 기다리지 않고 PasswordHashRejectedException으로 바로 실패한다. (503)</li>
+ *   <li>요청 스레드는 결과를 기다리는 동안 블로킹되지만 CPU를 쓰지 않는다.</li>
+ * </ul>
+ * 메트릭: security.password-hash.queue / active / rejected / wait
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Counter rejected;
+  private final Timer wait;
+
+  public OffloadingPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+      MeterRegistry registry) {
+    this.delegate = delegate;
+    AtomicInteger sequence = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    this.rejected = registry.counter("security.password-hash.rejected");
+    this.wait = registry.timer("security.password-hash.wait"); // 큐 대기 시간
+    registry.gauge("security.password-hash.queue", executor, e -> e.getQueue().size());
+    registry.gauge("security.password-hash.active", executor, ThreadPoolExecutor::getActiveCount);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return offload(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return offload(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword); // 해싱 없음
+  }
+
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private <T> T offload(Callable<T> task) {
+    long submitted = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        return task.call();
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new PasswordHashRejectedException("password hashing queue is full");
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new AuthenticationServiceException("interrupted while hashing password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new AuthenticationServiceException("password hashing failed", e.getCause());
+    }
+  }
+}
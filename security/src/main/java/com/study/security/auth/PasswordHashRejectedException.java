@@ -0,0 +1,13 @@
+package com.study.security.auth;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// 해싱 풀이 가득 차서 인증을 시도하지 않은 경우. 비밀번호가 틀린 것이 아니므로 503으로 응답한다.
+public class PasswordHashRejectedException extends AuthenticationServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  public PasswordHashRejectedException(String msg) {
+    super(msg);
+  }
+}
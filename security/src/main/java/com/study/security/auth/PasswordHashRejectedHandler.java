@@ -0,0 +1,60 @@
+package com.study.security.auth;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+/**
+ * PasswordHashRejectedException이면 503 + Retry-After, 그 외에는 원래 핸들러에 위임한다.
+ * 폼 로그인은 failureHandler, http basic은 authenticationEntryPoint로 등록한다.
+ */
+public class PasswordHashRejectedHandler implements AuthenticationFailureHandler,
+    AuthenticationEntryPoint {
+
+  private final AuthenticationFailureHandler failureHandler;
+  private final AuthenticationEntryPoint entryPoint;
+
+  public PasswordHashRejectedHandler(AuthenticationFailureHandler failureHandler) {
+    this(failureHandler, null);
+  }
+
+  public PasswordHashRejectedHandler(AuthenticationEntryPoint entryPoint) {
+    this(null, entryPoint);
+  }
+
+  private PasswordHashRejectedHandler(AuthenticationFailureHandler failureHandler,
+      AuthenticationEntryPoint entryPoint) {
+    this.failureHandler = failureHandler;
+    this.entryPoint = entryPoint;
+  }
+
+  @Override
+  public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+      AuthenticationException exception) throws IOException, ServletException {
+    if (!rejected(response, exception)) {
+      failureHandler.onAuthenticationFailure(request, response, exception);
+    }
+  }
+
+  @Override
+  public void commence(HttpServletRequest request, HttpServletResponse response,
+      AuthenticationException authException) throws IOException, ServletException {
+    if (!rejected(response, authException)) {
+      entryPoint.commence(request, response, authException);
+    }
+  }
+
+  private boolean rejected(HttpServletResponse response, AuthenticationException exception) {
+    if (!(exception instanceof PasswordHashRejectedException)) {
+      return false;
+    }
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    return true;
+  }
+}
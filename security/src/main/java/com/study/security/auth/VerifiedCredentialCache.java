@@ -0,0 +1,97 @@
+package com.study.security.auth;
+
+import com.study.security.cache.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 최근에 검증에 성공한 (username, 비밀번호) 다이제스트. 같은 클라이언트가 다시 인증하면 bcrypt를 건너뛴다.
+ * <ul>
+ *   <li>security.password-hash.verified-cache.enabled=true 일 때만 사용한다.</li>
+ *   <li>다이제스트는 프로세스 시작 시 만든 랜덤 키의 HMAC-SHA256이다. (재시작하면 전부 맞지 않게 된다)</li>
+ *   <li>인코딩된 비밀번호도 HMAC 입력에 포함하므로 비밀번호가 바뀌면 자동으로 맞지 않게 된다.</li>
+ *   <li>ttl(기본 1분)이 지나거나 max-size를 넘으면 지운다. (BoundedTtlCache)</li>
+ * </ul>
+ * <b>보안 수준이 낮아진다.</b> 키도 같은 힙에 있으므로 힙 덤프(또는 메모리를 읽을 수 있는 공격자)는
+ * 키와 다이제스트를 함께 얻는다. HMAC은 bcrypt와 달리 빠르므로, ttl 안에 로그인한 사용자의 비밀번호는
+ * bcrypt 해시보다 훨씬 빠르게 대입해 볼 수 있다. 로그인 처리량이 필요하고 이 위험을 받아들일 때만 켠다.
+ */
+@Component
+// 기본은 꺼져 있다. 켜면 최근 로그인한 비밀번호가 bcrypt 대신 HMAC으로만 보호된다. (위 설명 참고)
+@ConditionalOnProperty("security.password-hash.verified-cache.enabled")
+public class VerifiedCredentialCache {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final SecretKeySpec key;
+  private final ThreadLocal<Mac> mac; // Mac은 스레드 안전하지 않음
+  private final BoundedTtlCache<String, byte[]> verified;
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public VerifiedCredentialCache(MeterRegistry registry,
+      @Value("${security.password-hash.verified-cache.ttl:1m}") Duration ttl,
+      @Value("${security.password-hash.verified-cache.max-size:10000}") int maxSize) {
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    this.key = new SecretKeySpec(secret, ALGORITHM);
+    this.mac = ThreadLocal.withInitial(this::newMac);
+    this.verified = new BoundedTtlCache<>(maxSize, ttl);
+    this.hits = registry.counter("security.password-hash.verified-cache.hits");
+    this.misses = registry.counter("security.password-hash.verified-cache.misses");
+    registry.gauge("security.password-hash.verified-cache.size", verified, BoundedTtlCache::size);
+  }
+
+  public boolean isVerified(String username, String encodedPassword, String rawPassword) {
+    byte[] expected = verified.get(username);
+    if (expected == null
+        || !MessageDigest.isEqual(expected, digest(username, encodedPassword, rawPassword))) {
+      misses.increment();
+      return false;
+    }
+    hits.increment();
+    return true;
+  }
+
+  public void put(String username, String encodedPassword, String rawPassword) {
+    verified.put(username, digest(username, encodedPassword, rawPassword));
+  }
+
+  private byte[] digest(String username, String encodedPassword, String rawPassword) {
+    Mac mac = this.mac.get();
+    update(mac, username);
+    update(mac, encodedPassword);
+    update(mac, rawPassword);
+    return mac.doFinal();
+  }
+
+  // 길이를 앞에 붙여서 ("ab", "c")와 ("a", "bc")가 같은 입력이 되지 않게 한다.
+  private static void update(Mac mac, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    mac.update(new byte[]{
+        (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+        (byte) (bytes.length >>> 8), (byte) bytes.length});
+    mac.update(bytes);
+  }
+
+  private Mac newMac() {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
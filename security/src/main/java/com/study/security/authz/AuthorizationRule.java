@@ -0,0 +1,20 @@
+package com.study.security.authz;
+
+import java.util.Set;
+import org.springframework.http.HttpMethod;
+
+/**
+ * URL 권한 규칙 하나. method가 null이면 모든 메서드.
+ * pattern은 / 로 나눈 세그먼트 단위로 리터럴, * 또는 {변수}(세그먼트 하나), 마지막의 **(나머지 전부)만 지원한다.
+ */
+public record AuthorizationRule(int order, HttpMethod method, String pattern, Access access,
+                                Set<String> authorities) {
+
+  public enum Access {
+    PERMIT_ALL, AUTHENTICATED, HAS_ANY_AUTHORITY, DENY_ALL
+  }
+
+  boolean matches(String method) {
+    return this.method == null || this.method.matches(method);
+  }
+}
@@ -0,0 +1,156 @@
+package com.study.security.authz;
+
+import com.study.security.authz.AuthorizationRule.Access;
+import com.study.security.cache.BoundedTtlCache;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * URL 규칙 목록을 PathTrie로 컴파일한 AuthorizationManager.
+ * <ul>
+ *   <li>규칙은 선언한 순서대로 우선한다. (authorizeHttpRequests의 requestMatchers와 같음) 맞는 규칙이 없으면 거부.</li>
+ *   <li>(권한 목록, 익명 여부, 메서드, 경로) -> 결정을 cache-size 개까지 캐시한다.
+ *   권한 목록 자체를 키에 넣으므로 해시가 같아도 권한이 다르면 다른 항목이다.</li>
+ *   <li>RoleHierarchy가 있으면 캐시에 넣기 전에 한 번만 펼친다.</li>
+ * </ul>
+ */
+public class CompiledAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+  private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+  private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+  private final PathTrie trie = new PathTrie();
+  private final RoleHierarchy roleHierarchy;
+  private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+  private final UrlPathHelper urlPathHelper = UrlPathHelper.defaultInstance;
+  // 경로는 요청마다 다를 수 있으므로 크기 제한
+  private final BoundedTtlCache<DecisionKey, AuthorizationDecision> decisions;
+
+  private CompiledAuthorizationManager(List<AuthorizationRule> rules, RoleHierarchy roleHierarchy,
+      int cacheSize) {
+    rules.forEach(trie::add);
+    this.roleHierarchy = roleHierarchy;
+    this.decisions = new BoundedTtlCache<>(cacheSize);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public AuthorizationDecision check(Supplier<Authentication> authentication,
+      RequestAuthorizationContext context) {
+    HttpServletRequest request = context.getRequest();
+    return check(authentication.get(), request.getMethod(),
+        urlPathHelper.getPathWithinApplication(request));
+  }
+
+  AuthorizationDecision check(Authentication authentication, String method, String path) {
+    boolean authenticated = authentication != null && authentication.isAuthenticated()
+        && !trustResolver.isAnonymous(authentication);
+    Collection<? extends GrantedAuthority> authorities =
+        authentication == null ? List.of() : authentication.getAuthorities();
+    DecisionKey key = new DecisionKey(authorities, authenticated, method, path);
+    AuthorizationDecision decision = decisions.get(key);
+    if (decision == null) {
+      decision = decide(authorities, authenticated, method, path);
+      decisions.put(key, decision);
+    }
+    return decision;
+  }
+
+  private AuthorizationDecision decide(Collection<? extends GrantedAuthority> authorities,
+      boolean authenticated, String method, String path) {
+    AuthorizationRule rule = trie.match(path, method);
+    if (rule == null) {
+      return DENIED;
+    }
+    return switch (rule.access()) {
+      case PERMIT_ALL -> GRANTED;
+      case DENY_ALL -> DENIED;
+      case AUTHENTICATED -> authenticated ? GRANTED : DENIED;
+      case HAS_ANY_AUTHORITY -> {
+        for (GrantedAuthority authority : roleHierarchy.getReachableGrantedAuthorities(authorities)) {
+          if (rule.authorities().contains(authority.getAuthority())) {
+            yield GRANTED;
+          }
+        }
+        yield DENIED;
+      }
+    };
+  }
+
+  private record DecisionKey(Collection<? extends GrantedAuthority> authorities,
+                             boolean authenticated, String method, String path) {
+
+  }
+
+  public static class Builder {
+
+    private final List<AuthorizationRule> rules = new ArrayList<>();
+    private RoleHierarchy roleHierarchy = new NullRoleHierarchy();
+    private int cacheSize = 10_000;
+
+    public Builder permitAll(String... patterns) {
+      return add(null, Access.PERMIT_ALL, Set.of(), patterns);
+    }
+
+    public Builder authenticated(String... patterns) {
+      return add(null, Access.AUTHENTICATED, Set.of(), patterns);
+    }
+
+    public Builder denyAll(String... patterns) {
+      return add(null, Access.DENY_ALL, Set.of(), patterns);
+    }
+
+    public Builder hasAnyRole(HttpMethod method, String pattern, String... roles) {
+      Set<String> authorities = new HashSet<>();
+      for (String role : roles) {
+        authorities.add("ROLE_" + role);
+      }
+      return add(method, Access.HAS_ANY_AUTHORITY, authorities, pattern);
+    }
+
+    public Builder hasAnyAuthority(HttpMethod method, String pattern, String... authorities) {
+      return add(method, Access.HAS_ANY_AUTHORITY, Set.of(authorities), pattern);
+    }
+
+    public Builder roleHierarchy(RoleHierarchy roleHierarchy) {
+      this.roleHierarchy = roleHierarchy;
+      return this;
+    }
+
+    public Builder cacheSize(int cacheSize) {
+      this.cacheSize = cacheSize;
+      return this;
+    }
+
+    public CompiledAuthorizationManager build() {
+      return new CompiledAuthorizationManager(rules, roleHierarchy, cacheSize);
+    }
+
+    private Builder add(HttpMethod method, Access access, Set<String> authorities,
+        String... patterns) {
+      for (String pattern : patterns) {
+        rules.add(new AuthorizationRule(rules.size(), method, pattern, access, authorities));
+      }
+      return this;
+    }
+  }
+}
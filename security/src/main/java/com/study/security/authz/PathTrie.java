@@ -0,0 +1,107 @@
+package com.study.security.authz;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * URL 패턴을 세그먼트 단위 트라이로 컴파일한다.
+ * 요청 경로와 맞는 규칙 중 order가 가장 작은(먼저 선언한) 규칙을 찾는다. (RequestMatcher 목록을 앞에서부터 확인하는 것과 같은 결과)
+ * 규칙 수와 관계없이 비용은 경로의 세그먼트 수에 비례한다.
+ */
+class PathTrie {
+
+  private final Node root = new Node();
+
+  void add(AuthorizationRule rule) {
+    String pattern = rule.pattern();
+    if (!pattern.startsWith("/")) {
+      throw new IllegalArgumentException("pattern must start with '/': " + pattern);
+    }
+    String[] segments = split(pattern);
+    Node node = root;
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      if (segment.equals("**")) {
+        if (i != segments.length - 1) {
+          throw new IllegalArgumentException("'**' is only supported at the end: " + pattern);
+        }
+        node.remainderRules.add(rule);
+        return;
+      }
+      if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+        if (node.wildcard == null) {
+          node.wildcard = new Node();
+        }
+        node = node.wildcard;
+      } else if (segment.contains("*") || segment.contains("{")) {
+        throw new IllegalArgumentException("partial wildcards are not supported: " + pattern);
+      } else {
+        node = node.literals.computeIfAbsent(segment, s -> new Node());
+      }
+    }
+    node.rules.add(rule);
+  }
+
+  /**
+   * @return 맞는 규칙이 없으면 null
+   */
+  AuthorizationRule match(String path, String method) {
+    return match(root, split(path), 0, method, null);
+  }
+
+  private static AuthorizationRule match(Node node, String[] segments, int depth, String method,
+      AuthorizationRule best) {
+    best = first(node.remainderRules, method, best);
+    if (depth == segments.length) {
+      return first(node.rules, method, best);
+    }
+    Node literal = node.literals.get(segments[depth]);
+    if (literal != null) {
+      best = match(literal, segments, depth + 1, method, best);
+    }
+    if (node.wildcard != null && !segments[depth].isEmpty()) {
+      best = match(node.wildcard, segments, depth + 1, method, best);
+    }
+    return best;
+  }
+
+  // 규칙은 order 순서로 추가되므로 처음 맞는 규칙이 그 노드에서 가장 앞선 규칙
+  private static AuthorizationRule first(List<AuthorizationRule> rules, String method,
+      AuthorizationRule best) {
+    for (AuthorizationRule rule : rules) {
+      if (best != null && rule.order() > best.order()) {
+        break;
+      }
+      if (rule.matches(method)) {
+        return rule;
+      }
+    }
+    return best;
+  }
+
+  // "/a/b" -> [a, b], "/" -> [], "/a/" -> [a, ""]
+  private static String[] split(String path) {
+    if (path.length() <= 1) {
+      return new String[0];
+    }
+    List<String> segments = new ArrayList<>();
+    int from = 1;
+    int slash;
+    while ((slash = path.indexOf('/', from)) >= 0) {
+      segments.add(path.substring(from, slash));
+      from = slash + 1;
+    }
+    segments.add(path.substring(from));
+    return segments.toArray(new String[0]);
+  }
+
+  private static final class Node {
+
+    final Map<String, Node> literals = new HashMap<>();
+    Node wildcard;
+    final List<AuthorizationRule> rules = new ArrayList<>();
+    final List<AuthorizationRule> remainderRules = new ArrayList<>(); // ** : 나머지 세그먼트 전부 (0개 포함)
+  }
+}
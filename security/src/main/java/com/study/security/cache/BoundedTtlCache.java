@@ -0,0 +1,113 @@
+package com.study.security.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 크기 제한 + 만료 시간이 있는 캐시.
+ * <ul>
+ *   <li>max-size를 넘으면 먼저 넣은 항목부터 지운다. (FIFO) 만료 시간이 같으므로 먼저 넣은 항목이 먼저 만료된다.</li>
+ *   <li>넣은 순서를 큐로 따로 관리하므로 가득 찬 상태에서도 put이 전체를 훑지 않는다.</li>
+ *   <li>만료된 항목은 조회할 때 지운다. 조회되지 않는 만료 항목은 FIFO로 밀려난다.</li>
+ *   <li>같은 키를 다시 넣거나 지우면 큐에 이전 항목이 남는데, 밀려날 때 이미 교체된 항목이면 지우지 않는다.
+ *   (그만큼 살아 있는 항목이 조금 일찍 밀려날 수 있다)</li>
+ * </ul>
+ * max-size가 0 이하면 아무것도 저장하지 않는다.
+ */
+public class BoundedTtlCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos; // 0이면 만료 없음 (크기로만 제한)
+  private final LongSupplier nanoTime;
+  private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Node<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+
+  public BoundedTtlCache(int maxSize) {
+    this(maxSize, Duration.ZERO);
+  }
+
+  public BoundedTtlCache(int maxSize, Duration ttl) {
+    this(maxSize, ttl, System::nanoTime);
+  }
+
+  BoundedTtlCache(int maxSize, Duration ttl, LongSupplier nanoTime) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * @return 없거나 만료되었으면 null
+   */
+  public V get(K key) {
+    Node<K, V> node = entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (isExpired(node)) {
+      entries.remove(key, node);
+      return null;
+    }
+    return node.value;
+  }
+
+  public void put(K key, V value) {
+    if (maxSize <= 0) {
+      return;
+    }
+    Node<K, V> node = new Node<>(key, value, nanoTime.getAsLong() + ttlNanos);
+    entries.put(key, node);
+    insertionOrder.add(node);
+    queued.incrementAndGet();
+    // 큐에는 살아 있는 항목이 모두 들어 있으므로 큐 길이만 제한하면 캐시 크기도 제한된다
+    while (queued.get() > maxSize) {
+      Node<K, V> oldest = insertionOrder.poll();
+      if (oldest == null) {
+        break;
+      }
+      queued.decrementAndGet();
+      entries.remove(oldest.key, oldest);
+    }
+  }
+
+  public void remove(K key) {
+    entries.remove(key);
+  }
+
+  /**
+   * 지금 값이 value일 때만 지운다.
+   */
+  public void remove(K key, V value) {
+    entries.computeIfPresent(key, (k, node) -> node.value.equals(value) ? null : node);
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private boolean isExpired(Node<K, V> node) {
+    return ttlNanos > 0 && nanoTime.getAsLong() - node.expiresAt > 0;
+  }
+
+  // 밀려날 때 같은 항목인지 비교하므로 equals는 동일성 비교 (record로 만들지 않는다)
+  private static final class Node<K, V> {
+
+    private final K key;
+    private final V value;
+    private final long expiresAt;
+
+    Node(K key, V value, long expiresAt) {
+      this.key = key;
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
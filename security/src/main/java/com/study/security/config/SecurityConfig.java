@@ -0,0 +1,174 @@
+package com.study.security.config;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+import com.study.security.auth.CachingAuthenticationProvider;
+import com.study.security.auth.JpaUserDetailsService;
+import com.study.security.auth.OffloadingPasswordEncoder;
+import com.study.security.auth.PasswordHashRejectedHandler;
+import com.study.security.auth.VerifiedCredentialCache;
+import com.study.security.authz.CompiledAuthorizationManager;
+import com.study.security.metrics.FilterTimingPostProcessor;
+import com.study.security.ratelimit.LoginRateLimitFilter;
+import com.study.security.ratelimit.LoginRateLimiter;
+import com.study.security.session.OffHeapSecurityContextRepository;
+import com.study.security.token.TokenAuthenticationFilter;
+import com.study.security.token.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.writers.HstsHeaderWriter;
+import org.springframework.security.web.header.writers.XContentTypeOptionsHeaderWriter;
+import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter.XFrameOptionsMode;
+import org.springframework.security.web.savedrequest.CookieRequestCache;
+
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+  // /api/** : 세션 없이 토큰(Authorization: Bearer)으로 인증. 토큰 발급(/api/token)만 http basic.
+  @Bean
+  @Order(1)
+  public SecurityFilterChain apiFilterChain(HttpSecurity http, TokenService tokenService,
+      LoginRateLimitFilter loginRateLimitFilter) throws Exception {
+    http
+        .securityMatcher("/api/**")
+        .authorizeHttpRequests(authorize -> authorize
+            .anyRequest().authenticated())
+        .addFilterBefore(loginRateLimitFilter, BasicAuthenticationFilter.class)
+        .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
+        .httpBasic(httpBasic -> httpBasic
+            .authenticationEntryPoint(new PasswordHashRejectedHandler(basicEntryPoint())))
+        .sessionManagement(session -> session
+            .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .requestCache(requestCache -> requestCache.disable())
+        .csrf(csrf -> csrf.disable()) // 쿠키로 인증하지 않으므로 CSRF 대상이 아님
+        .headers(SecurityConfig::securityHeaders);
+    return http.build();
+  }
+
+  @Bean
+  public SecurityFilterChain filterChain(HttpSecurity http,
+      LoginRateLimitFilter loginRateLimitFilter,
+      ObjectProvider<OffHeapSecurityContextRepository> offHeapSecurityContextRepository)
+      throws Exception {
+    OffHeapSecurityContextRepository securityContextRepository =
+        offHeapSecurityContextRepository.getIfAvailable();
+    if (securityContextRepository != null) {
+      // 로그인 정보를 힙 밖에 저장. CSRF 토큰과 로그인 전 요청도 세션 대신 쿠키에 둬서 HttpSession을 만들지 않는다.
+      http
+          .securityContext(securityContext -> securityContext
+              .securityContextRepository(securityContextRepository))
+          .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+          .requestCache(requestCache -> requestCache.requestCache(new CookieRequestCache()));
+    }
+    http
+        // URL 규칙은 트라이로 컴파일해서 확인하고 결정은 캐시한다. (위에서부터 먼저 맞는 규칙)
+        .authorizeHttpRequests(authorize -> authorize
+            .anyRequest().access(CompiledAuthorizationManager.builder()
+                .permitAll("/") // 익명 공개 페이지 (PrerenderedPageFilter가 미리 렌더링해서 응답)
+                .authenticated("/**")
+                .build()))
+        .addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+        // 해싱 풀이 가득 차면 로그인 실패가 아니라 503
+        .formLogin(formLogin -> formLogin
+            .failureHandler(new PasswordHashRejectedHandler(
+                new SimpleUrlAuthenticationFailureHandler("/login?error"))))
+        .httpBasic(httpBasic -> httpBasic
+            .authenticationEntryPoint(new PasswordHashRejectedHandler(basicEntryPoint())))
+        .headers(SecurityConfig::securityHeaders);
+    return http.build();
+  }
+
+  // 시큐리티 기본 보안 헤더와 같은 구성. 캐시 헤더를 뺀 나머지는 PrerenderedPageFilter(체인보다 먼저 응답)도 같이 쓴다.
+  static List<HeaderWriter> securityHeaderWriters() {
+    return List.of(new XContentTypeOptionsHeaderWriter(), new XXssProtectionHeaderWriter(),
+        new HstsHeaderWriter(), new XFrameOptionsHeaderWriter(XFrameOptionsMode.DENY));
+  }
+
+  private static void securityHeaders(HeadersConfigurer<HttpSecurity> headers) {
+    headers.defaultsDisabled().cacheControl(withDefaults());
+    securityHeaderWriters().forEach(headers::addHeaderWriter);
+  }
+
+  // 최근 1분(window) 동안 비밀번호가 틀린 횟수로 로그인 시도를 DB 조회/해싱 전에 거절 (429)
+  @Bean
+  public LoginRateLimiter loginRateLimiter(
+      @Value("${security.login-rate-limit.window:1m}") Duration window,
+      @Value("${security.login-rate-limit.width:262144}") int width) {
+    return new LoginRateLimiter(window, width);
+  }
+
+  // 빈으로 등록하면 서블릿 필터로도 등록되므로 등록을 끈다. (시큐리티 필터 체인에서만 실행)
+  @Bean
+  public FilterRegistrationBean<LoginRateLimitFilter> loginRateLimitFilterRegistration(
+      LoginRateLimitFilter loginRateLimitFilter) {
+    FilterRegistrationBean<LoginRateLimitFilter> registration =
+        new FilterRegistrationBean<>(loginRateLimitFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  @Bean
+  public LoginRateLimitFilter loginRateLimitFilter(LoginRateLimiter loginRateLimiter,
+      MeterRegistry registry,
+      @Value("${security.login-rate-limit.max-failures-per-username:10}") int maxFailuresPerUsername,
+      @Value("${security.login-rate-limit.max-failures-per-ip:50}") int maxFailuresPerIp) {
+    return new LoginRateLimitFilter(loginRateLimiter, maxFailuresPerUsername, maxFailuresPerIp,
+        registry);
+  }
+
+  // 필터별 실행 시간을 요청 일부(sample-rate)만 측정. 0이면 끈다.
+  @Bean
+  public static FilterTimingPostProcessor filterTimingPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      ObjectProvider<ObservationRegistry> observationRegistry,
+      @Value("${security.filter-timing.sample-rate:0.01}") double sampleRate) {
+    return new FilterTimingPostProcessor(meterRegistry, observationRegistry, sampleRate);
+  }
+
+  private static BasicAuthenticationEntryPoint basicEntryPoint() {
+    BasicAuthenticationEntryPoint entryPoint = new BasicAuthenticationEntryPoint();
+    entryPoint.setRealmName("Realm");
+    return entryPoint;
+  }
+
+  // {bcrypt} 같은 접두어로 인코딩 방식을 구분한다. 해싱은 전용 스레드 풀에서 실행.
+  @Bean
+  public PasswordEncoder passwordEncoder(MeterRegistry registry,
+      @Value("${security.password-hash.threads:0}") int threads,
+      @Value("${security.password-hash.queue-capacity:32}") int queueCapacity) {
+    return new OffloadingPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+        threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity, registry);
+  }
+
+  @Bean
+  public DaoAuthenticationProvider authenticationProvider(JpaUserDetailsService userDetailsService,
+      PasswordEncoder passwordEncoder, ObjectProvider<VerifiedCredentialCache> verifiedCredentialCache) {
+    return new CachingAuthenticationProvider(userDetailsService, passwordEncoder,
+        verifiedCredentialCache.getIfAvailable());
+  }
+}
@@ -1,6 +1,14 @@
 package com.study.security.config;
 
-import org.springframework.boot.web.servlet.view.MustacheViewResolver;
+import com.study.security.view.MustacheTemplates;
+import com.study.security.view.PrecompiledMustacheViewResolver;
+import com.study.security.view.PrerenderedPageFilter;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -8,14 +16,36 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration // IoC로 등록하기 위해.
 public class WebMvcConfig implements WebMvcConfigurer {
 
+  private final MustacheTemplates mustacheTemplates;
+  private final boolean streaming;
+  private final int bufferPoolSize;
+  private final int maxBufferSize;
+
+  public WebMvcConfig(MustacheTemplates mustacheTemplates,
+      @Value("${view.mustache.streaming:false}") boolean streaming,
+      @Value("${view.mustache.buffer-pool-size:64}") int bufferPoolSize,
+      @Value("${view.mustache.max-buffer-size:262144}") int maxBufferSize) {
+    this.mustacheTemplates = mustacheTemplates;
+    this.streaming = streaming;
+    this.bufferPoolSize = bufferPoolSize;
+    this.maxBufferSize = maxBufferSize;
+  }
+
+  // 시큐리티 필터 체인(DEFAULT_FILTER_ORDER)보다 먼저 실행
+  @Bean
+  public FilterRegistrationBean<PrerenderedPageFilter> prerenderedPageFilter(
+      @Value("${view.prerender.pages:/=index}") List<String> pages) throws IOException {
+    FilterRegistrationBean<PrerenderedPageFilter> registration = new FilterRegistrationBean<>(
+        new PrerenderedPageFilter(mustacheTemplates, pages,
+            SecurityConfig.securityHeaderWriters())); // 체인과 같은 보안 헤더
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+    return registration;
+  }
+
   @Override
   public void configureViewResolvers(ViewResolverRegistry registry) {
-    MustacheViewResolver resolver = new MustacheViewResolver();
-    resolver.setCharset("UTF-8");
-    resolver.setContentType("text/html; charset=UTF-8");
-    resolver.setPrefix("classpath:/templates/");
-    resolver.setSuffix(".html"); // .html 파일도 머스테치가 인식을 하게 됨.
-
-    registry.viewResolver(resolver); // 뷰 리졸버 등록
+    // classpath:/templates/*.html 을 시작할 때 한 번만 컴파일해서 사용 (MustacheTemplates)
+    registry.viewResolver(new PrecompiledMustacheViewResolver(mustacheTemplates, streaming,
+        bufferPoolSize, maxBufferSize)); // 뷰 리졸버 등록
   }
 }
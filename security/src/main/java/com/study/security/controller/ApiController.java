@@ -0,0 +1,32 @@
+package com.study.security.controller;
+
+import com.study.security.token.TokenAuthentication;
+import com.study.security.token.TokenService;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController // 세션 없이 토큰으로 인증하는 API (SecurityConfig.apiFilterChain)
+@RequiredArgsConstructor
+public class ApiController {
+
+  private final TokenService tokenService;
+
+  // http basic으로 로그인해서 토큰 발급. 토큰으로 토큰을 다시 받으면 만료가 의미 없어지므로 거절.
+  @PostMapping("/api/token")
+  public Map<String, String> token(Authentication authentication) {
+    if (authentication instanceof TokenAuthentication) {
+      throw new AccessDeniedException("token cannot be reissued with a token");
+    }
+    return Map.of("token", tokenService.issue(authentication));
+  }
+
+  @GetMapping("/api/me")
+  public Map<String, String> me(Authentication authentication) {
+    return Map.of("username", authentication.getName());
+  }
+}
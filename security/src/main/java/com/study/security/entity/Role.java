@@ -0,0 +1,29 @@
+package com.study.security.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class Role {
+
+  @Id
+  @GeneratedValue
+  @Column(name = "role_id")
+  private Long id;
+
+  @Column(unique = true, nullable = false)
+  private String name; // 예: ROLE_USER
+
+  public Role(String name) {
+    this.name = name;
+  }
+}
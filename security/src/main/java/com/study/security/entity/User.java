@@ -0,0 +1,70 @@
+package com.study.security.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "username", "enabled"}) // 비밀번호는 로그에 남기지 않음
+@Table(name = "users") // user는 예약어
+@EntityListeners(UserCacheEvictionListener.class)
+public class User {
+
+  @Id
+  @GeneratedValue
+  @Column(name = "user_id")
+  private Long id;
+
+  @Column(unique = true, nullable = false)
+  private String username;
+
+  private String password; // 인코딩된 비밀번호
+
+  private boolean enabled = true;
+
+  // 권한 컬렉션만 바뀌어도 버전이 올라가서 @PostUpdate가 호출된다. (캐시 무효화)
+  @Version
+  private Long version;
+
+  @ManyToMany
+  @JoinTable(name = "user_role",
+      joinColumns = @JoinColumn(name = "user_id"),
+      inverseJoinColumns = @JoinColumn(name = "role_id"))
+  private Set<Role> roles = new HashSet<>();
+
+  public User(String username, String password) {
+    this.username = username;
+    this.password = password;
+  }
+
+  public void changePassword(String password) {
+    this.password = password;
+  }
+
+  public void addRole(Role role) {
+    roles.add(role);
+  }
+
+  public void removeRole(Role role) {
+    roles.remove(role);
+  }
+
+  public void disable() {
+    this.enabled = false;
+  }
+}
@@ -0,0 +1,41 @@
+package com.study.security.entity;
+
+import com.study.security.auth.JpaUserDetailsService;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 비밀번호, 권한, 사용 여부가 바뀌거나 삭제되면 캐시에서 지운다.
+ * 커밋 전에 다른 스레드가 이전 값을 다시 캐시할 수 있으므로 커밋 후에 한 번 더 지운다.
+ * 하이버네이트가 스프링 빈 컨테이너로 생성하며, 서비스가 EntityManager에 의존하므로 ObjectProvider로 늦게 가져온다.
+ */
+public class UserCacheEvictionListener {
+
+  private final ObjectProvider<JpaUserDetailsService> userDetailsService;
+
+  public UserCacheEvictionListener(ObjectProvider<JpaUserDetailsService> userDetailsService) {
+    this.userDetailsService = userDetailsService;
+  }
+
+  @PostUpdate
+  @PostRemove
+  void onChange(User user) {
+    JpaUserDetailsService service = userDetailsService.getIfAvailable();
+    if (service == null) {
+      return;
+    }
+    String username = user.getUsername();
+    service.evict(username);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          service.evict(username);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.study.security.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.ObservationFilterChainDecorator;
+
+/**
+ * springSecurityFilterChain(FilterChainProxy)에 FilterTimingDecorator를 건다.
+ * WebSecurity가 정하는 기본 decorator(관측 레지스트리가 있으면 ObservationFilterChainDecorator)를 그대로 감싼다.
+ */
+public class FilterTimingPostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final ObjectProvider<ObservationRegistry> observationRegistry;
+  private final double sampleRate;
+
+  public FilterTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+      ObjectProvider<ObservationRegistry> observationRegistry, double sampleRate) {
+    this.meterRegistry = meterRegistry;
+    this.observationRegistry = observationRegistry;
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof FilterChainProxy filterChainProxy && sampleRate > 0) {
+      ObservationRegistry observations = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+      FilterChainProxy.FilterChainDecorator delegate = observations.isNoop()
+          ? new FilterChainProxy.VirtualFilterChainDecorator()
+          : new ObservationFilterChainDecorator(observations);
+      filterChainProxy.setFilterChainDecorator(
+          new FilterTimingDecorator(delegate, meterRegistry.getObject(), sampleRate));
+    }
+    return bean;
+  }
+}
@@ -0,0 +1,31 @@
+package com.study.security.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * 비밀번호가 틀린(없는 username 포함) 로그인만 username, IP별로 기록한다.
+ * 성공이나 서버 사정으로 실패한 경우(해싱 풀 포화 등)는 세지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginFailureListener {
+
+  private final LoginRateLimiter limiter;
+
+  @EventListener
+  public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+    Authentication authentication = event.getAuthentication();
+    if (authentication.getName() != null) {
+      limiter.record(LoginRateLimitFilter.usernameKey(authentication.getName()));
+    }
+    if (authentication.getDetails() instanceof WebAuthenticationDetails details
+        && details.getRemoteAddress() != null) {
+      limiter.record(LoginRateLimitFilter.ipKey(details.getRemoteAddress()));
+    }
+  }
+}
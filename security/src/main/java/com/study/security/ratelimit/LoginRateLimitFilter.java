@@ -0,0 +1,91 @@
+package com.study.security.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 로그인 시도(폼 로그인 POST /login, Authorization: Basic)를 인증 필터보다 먼저 확인해서
+ * 최근 실패가 많은 username이나 IP면 DB 조회와 해싱 없이 429로 거절한다.
+ * 실패 횟수는 LoginFailureListener가 기록한다. 두 필터 체인이 같이 쓰므로 빈으로 만들고 서블릿 필터 등록은 끈다.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+  private static final RequestMatcher FORM_LOGIN = new AntPathRequestMatcher("/login", "POST");
+  private static final String BASIC = "Basic ";
+
+  private final LoginRateLimiter limiter;
+  private final int maxFailuresPerUsername;
+  private final int maxFailuresPerIp;
+  private final MeterRegistry registry;
+
+  public LoginRateLimitFilter(LoginRateLimiter limiter, int maxFailuresPerUsername,
+      int maxFailuresPerIp, MeterRegistry registry) {
+    this.limiter = limiter;
+    this.maxFailuresPerUsername = maxFailuresPerUsername;
+    this.maxFailuresPerIp = maxFailuresPerIp;
+    this.registry = registry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String username = attemptedUsername(request);
+    if (username != null) {
+      if (limiter.estimate(ipKey(request.getRemoteAddr())) >= maxFailuresPerIp) {
+        reject(response, "ip");
+        return;
+      }
+      if (limiter.estimate(usernameKey(username)) >= maxFailuresPerUsername) {
+        reject(response, "username");
+        return;
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  // username은 대소문자만 바꿔서 우회하지 못하게 소문자로 (MySQL 기본 콜레이션은 대소문자 구분 없음)
+  static String usernameKey(String username) {
+    return "username:" + username.toLowerCase(Locale.ROOT);
+  }
+
+  static String ipKey(String ip) {
+    return "ip:" + ip;
+  }
+
+  private void reject(HttpServletResponse response, String key) {
+    registry.counter("security.login-rate-limit.rejected", "key", key).increment();
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(limiter.secondsUntilNextWindow()));
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+  }
+
+  private static String attemptedUsername(HttpServletRequest request) {
+    if (FORM_LOGIN.matches(request)) {
+      return request.getParameter("username");
+    }
+    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+      return null;
+    }
+    try {
+      String credentials = new String(
+          Base64.getDecoder().decode(authorization.substring(BASIC.length()).trim()),
+          StandardCharsets.UTF_8);
+      int colon = credentials.indexOf(':');
+      return colon < 0 ? null : credentials.substring(0, colon);
+    } catch (IllegalArgumentException e) {
+      return null; // 형식 오류는 BasicAuthenticationFilter가 처리
+    }
+  }
+}
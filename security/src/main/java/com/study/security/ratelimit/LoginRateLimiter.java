@@ -0,0 +1,130 @@
+package com.study.security.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 키(username, IP)별 로그인 실패 횟수를 세는 슬라이딩 윈도우 카운터. 락 없이 CAS로만 갱신한다.
+ * <ul>
+ *   <li>키마다 카운터를 두지 않고 count-min 스케치(DEPTH 행 x width 열)에 센다. 키가 수백만 개여도 메모리는
+ *   고정(2 x DEPTH x width x 4바이트)이다. 해시 충돌 때문에 실제보다 크게 셀 수 있으므로 width는 윈도우 동안
+ *   실패할 서로 다른 키 수의 1/8 이상으로 잡는다. (기본 2^18칸, 8MB: 키 200만 개일 때 처음 보는 키의 추정치 최대 5)</li>
+ *   <li>윈도우 두 개(현재, 직전)를 번갈아 쓴다. 추정치 = 현재 + 직전 x (현재 윈도우에서 남은 비율)</li>
+ *   <li>칸마다 윈도우 번호 하위 16비트(상위 16비트)와 횟수(하위 16비트)를 같이 저장해서, 윈도우가 바뀌면 배열을 비우지 않고
+ *   다음 갱신 때 그 칸만 0부터 다시 센다.</li>
+ * </ul>
+ */
+public class LoginRateLimiter {
+
+  private static final int DEPTH = 4;
+  private static final int COUNT_MASK = 0xFFFF;
+  private static final int EPOCH_MASK = 0xFFFF;
+
+  private final long windowNanos;
+  private final int width;
+  private final AtomicIntegerArray[] windows;
+  private final LongSupplier nanoTime;
+
+  /**
+   * @param width 행마다 칸 수. 2의 거듭제곱으로 올림한다.
+   */
+  public LoginRateLimiter(Duration window, int width) {
+    this(window, width, System::nanoTime);
+  }
+
+  LoginRateLimiter(Duration window, int width, LongSupplier nanoTime) {
+    this.windowNanos = window.toNanos();
+    this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+    this.windows = new AtomicIntegerArray[]{
+        new AtomicIntegerArray(DEPTH * this.width), new AtomicIntegerArray(DEPTH * this.width)};
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * 슬라이딩 윈도우 동안 record()된 횟수의 추정치. (실제 이상)
+   */
+  public long estimate(String key) {
+    long now = nanoTime.getAsLong();
+    long epoch = Math.floorDiv(now, windowNanos);
+    double previousWeight = 1 - (double) Math.floorMod(now, windowNanos) / windowNanos;
+    AtomicIntegerArray current = windows[(int) (epoch & 1)];
+    AtomicIntegerArray previous = windows[(int) ((epoch - 1) & 1)];
+
+    long hash = hash64(key);
+    long h1 = fmix64(hash);
+    long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+    double min = Double.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      int index = index(row, h1, h2);
+      double count = count(current.get(index), epoch) + previousWeight * count(previous.get(index), epoch - 1);
+      min = Math.min(min, count);
+    }
+    return (long) Math.ceil(min);
+  }
+
+  public void record(String key) {
+    long epoch = Math.floorDiv(nanoTime.getAsLong(), windowNanos);
+    AtomicIntegerArray current = windows[(int) (epoch & 1)];
+    int tag = (int) (epoch & EPOCH_MASK) << 16;
+
+    long hash = hash64(key);
+    long h1 = fmix64(hash);
+    long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+    int min = COUNT_MASK;
+    for (int row = 0; row < DEPTH; row++) {
+      min = Math.min(min, count(current.get(index(row, h1, h2)), epoch));
+    }
+    if (min == COUNT_MASK) {
+      return; // 넘치지 않게
+    }
+
+    // conservative update: 모든 칸을 올리지 않고 min + 1보다 작은 칸만 min + 1로 올린다.
+    // 다른 키와 충돌한 칸이 덜 부풀어서 키가 많을 때 과대 추정이 크게 준다.
+    // 같은 키를 동시에 기록하면 1씩 덜 셀 수 있다.
+    int next = tag | (min + 1);
+    for (int row = 0; row < DEPTH; row++) {
+      int index = index(row, h1, h2);
+      int value = current.get(index);
+      while (count(value, epoch) < min + 1 && !current.compareAndSet(index, value, next)) {
+        value = current.get(index); // 지난 윈도우의 값이면 count가 0이므로 새로 센다
+      }
+    }
+  }
+
+  /**
+   * 현재 윈도우가 끝날 때까지 남은 초. (그 뒤로는 현재 횟수가 점점 덜 반영된다)
+   */
+  public long secondsUntilNextWindow() {
+    long remaining = windowNanos - Math.floorMod(nanoTime.getAsLong(), windowNanos);
+    return Math.max(1, Duration.ofNanos(remaining).toSeconds());
+  }
+
+  private int index(int row, long h1, long h2) {
+    return row * width + (int) ((h1 + row * h2) & (width - 1));
+  }
+
+  private static int count(int value, long epoch) {
+    return (value >>> 16) == (epoch & EPOCH_MASK) ? value & COUNT_MASK : 0;
+  }
+
+  // FNV-1a (문자열을 바이트 배열로 바꾸지 않고 char 단위로)
+  private static long hash64(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  // murmur3 finalizer
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb1a5ad8ae6cbL;
+    k ^= k >>> 33;
+    return k;
+  }
+}
@@ -0,0 +1,10 @@
+package com.study.security.repository;
+
+import com.study.security.entity.Role;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RoleRepository extends JpaRepository<Role, Long> {
+
+  Optional<Role> findByName(String name);
+}
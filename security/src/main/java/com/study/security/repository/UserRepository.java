@@ -0,0 +1,17 @@
+package com.study.security.repository;
+
+import com.study.security.entity.User;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserRepository extends JpaRepository<User, Long> {
+
+  Optional<User> findByUsername(String username);
+
+  // 캐시 미스를 모아서 한 번에 조회 (권한까지 fetch join)
+  @EntityGraph(attributePaths = "roles")
+  List<User> findByUsernameIn(Collection<String> usernames);
+}
@@ -0,0 +1,259 @@
+package com.study.security.session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 힙 밖(direct ByteBuffer 또는 memory-mapped 파일)에 고정 크기 슬롯으로 값을 저장하는 저장소. 키는 128비트 id.
+ * (파일에 그대로 기록되므로 비밀 값은 해시해서 넘긴다)
+ * <ul>
+ *   <li>인덱스도 힙에 두지 않는다. id 해시로 버킷(슬롯 WAYS개)을 정하고 버킷 안에서만 찾는다. (set-associative)</li>
+ *   <li>버킷이 가득 차면 마지막 접근이 가장 오래된 슬롯을 덮어쓴다. (버킷 단위 LRU)
+ *   id를 직접 정하는 쪽은 putIfRoom()으로 빈 버킷을 찾아 전체가 차기 전의 이른 축출을 피할 수 있다.</li>
+ *   <li>마지막 접근에서 idle-timeout이 지난 슬롯은 없는 것으로 보고 재사용한다.</li>
+ *   <li>파일에 매핑하면 재시작해도 남아 있다. 시각은 재시작 후에도 비교할 수 있도록 epoch 밀리초로 저장한다.
+ *   파일은 소유자만 읽고 쓸 수 있게(rw-------) 만든다. (POSIX 파일 시스템)</li>
+ *   <li>버킷마다 락(스트라이프)을 잡으므로 다른 버킷끼리는 경합하지 않는다.</li>
+ * </ul>
+ * 슬롯: id(16) + 마지막 접근(8) + 길이(2) + 값
+ */
+class ContextSlab implements AutoCloseable {
+
+  static final int SLOT_SIZE = 256;
+  static final int MAX_VALUE_SIZE = SLOT_SIZE - 26;
+
+  private static final int WAYS = 8;
+  private static final int STRIPES = 256;
+  private static final int HEADER_SIZE = 64;
+  private static final int MAGIC = 0x53435458; // "SCTX"
+  private static final int VERSION = 2; // 2: 키가 세션 id 대신 세션 id의 해시
+
+  private static final Set<PosixFilePermission> OWNER_ONLY =
+      PosixFilePermissions.fromString("rw-------");
+
+  private static final int STORED = 0;
+  private static final int EVICTED = 1;
+  private static final int FULL = 2;
+
+  private final ByteBuffer buffer;
+  private final FileChannel channel;
+  private final int buckets;
+  private final long idleTimeoutMillis;
+  private final LongSupplier clock;
+  private final Object[] locks = new Object[STRIPES];
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @param file null이면 direct ByteBuffer (재시작하면 사라짐)
+   */
+  ContextSlab(Path file, int capacity, long idleTimeoutMillis, LongSupplier clock)
+      throws IOException {
+    this.buckets = Math.max(1, (capacity + WAYS - 1) / WAYS);
+    long bytes = HEADER_SIZE + (long) buckets * WAYS * SLOT_SIZE;
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("capacity too large: " + capacity);
+    }
+    if (file == null) {
+      this.channel = null;
+      this.buffer = ByteBuffer.allocateDirect((int) bytes);
+    } else {
+      this.channel = open(file);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    }
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.clock = clock;
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new Object();
+    }
+
+    if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+        && buffer.getInt(8) == SLOT_SIZE && buffer.getInt(12) == buckets) {
+      recount(); // 이전 실행에서 저장한 슬롯 재사용
+    } else {
+      for (int bucket = 0; bucket < buckets; bucket++) { // 처음이거나 크기가 바뀌었으면 버림
+        for (int way = 0; way < WAYS; way++) {
+          buffer.putLong(slot(bucket, way), 0);
+          buffer.putLong(slot(bucket, way) + 8, 0);
+        }
+      }
+      buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, SLOT_SIZE).putInt(12, buckets);
+    }
+  }
+
+  /**
+   * @return 없거나 idle-timeout이 지났으면 null
+   */
+  byte[] get(long idHigh, long idLow) {
+    int bucket = bucket(idHigh, idLow);
+    synchronized (lock(bucket)) {
+      long now = clock.getAsLong();
+      for (int way = 0; way < WAYS; way++) {
+        int slot = slot(bucket, way);
+        if (buffer.getLong(slot) == idHigh && buffer.getLong(slot + 8) == idLow) {
+          if (isIdle(slot, now)) {
+            clear(slot);
+            return null;
+          }
+          buffer.putLong(slot + 16, now);
+          byte[] value = new byte[buffer.getShort(slot + 24)];
+          buffer.get(slot + 26, value);
+          return value;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * @return 자리를 만들려고 다른 값을 지웠으면 true
+   */
+  boolean put(long idHigh, long idLow, byte[] value) {
+    return write(idHigh, idLow, value, true) == EVICTED;
+  }
+
+  /**
+   * 버킷에 빈 슬롯(또는 idle-timeout이 지난 슬롯)이 있을 때만 저장한다.
+   *
+   * @return 저장했으면 true
+   */
+  boolean putIfRoom(long idHigh, long idLow, byte[] value) {
+    return write(idHigh, idLow, value, false) != FULL;
+  }
+
+  void remove(long idHigh, long idLow) {
+    int bucket = bucket(idHigh, idLow);
+    synchronized (lock(bucket)) {
+      for (int way = 0; way < WAYS; way++) {
+        int slot = slot(bucket, way);
+        if (buffer.getLong(slot) == idHigh && buffer.getLong(slot + 8) == idLow) {
+          clear(slot);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * 사용 중인 슬롯 수. idle-timeout이 지났지만 아직 재사용되지 않은 슬롯도 포함한다.
+   */
+  int size() {
+    return size.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      ((MappedByteBuffer) buffer).force();
+      channel.close();
+    }
+  }
+
+  private int write(long idHigh, long idLow, byte[] value, boolean evict) {
+    if (value.length > MAX_VALUE_SIZE) {
+      throw new IllegalArgumentException("value too large: " + value.length);
+    }
+    int bucket = bucket(idHigh, idLow);
+    synchronized (lock(bucket)) {
+      long now = clock.getAsLong();
+      int target = -1;
+      int oldest = -1;
+      for (int way = 0; way < WAYS; way++) {
+        int slot = slot(bucket, way);
+        if (buffer.getLong(slot) == idHigh && buffer.getLong(slot + 8) == idLow) {
+          target = slot;
+          break;
+        }
+        if (target < 0 && (isEmpty(slot) || isIdle(slot, now))) {
+          target = slot; // 같은 id가 뒤에 있을 수 있으므로 계속 확인
+        }
+        if (oldest < 0 || buffer.getLong(slot + 16) < buffer.getLong(oldest + 16)) {
+          oldest = slot;
+        }
+      }
+
+      int result = STORED;
+      if (target < 0) {
+        if (!evict) {
+          return FULL;
+        }
+        target = oldest;
+        result = EVICTED;
+      } else if (isEmpty(target)) {
+        size.incrementAndGet();
+      }
+      buffer.putLong(target, idHigh);
+      buffer.putLong(target + 8, idLow);
+      buffer.putLong(target + 16, now);
+      buffer.putShort(target + 24, (short) value.length);
+      buffer.put(target + 26, value);
+      return result;
+    }
+  }
+
+  private static FileChannel open(Path file) throws IOException {
+    Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    if (!file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      return FileChannel.open(file, options);
+    }
+    FileChannel channel = FileChannel.open(file, options,
+        PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+    try {
+      Files.setPosixFilePermissions(file, OWNER_ONLY); // 이전에 만든 파일도 좁힌다
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  private void clear(int slot) {
+    buffer.putLong(slot, 0);
+    buffer.putLong(slot + 8, 0);
+    size.decrementAndGet();
+  }
+
+  private boolean isEmpty(int slot) {
+    return buffer.getLong(slot) == 0 && buffer.getLong(slot + 8) == 0;
+  }
+
+  private boolean isIdle(int slot, long now) {
+    return now - buffer.getLong(slot + 16) > idleTimeoutMillis;
+  }
+
+  private void recount() {
+    int count = 0;
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      for (int way = 0; way < WAYS; way++) {
+        if (!isEmpty(slot(bucket, way))) {
+          count++;
+        }
+      }
+    }
+    size.set(count);
+  }
+
+  private int bucket(long idHigh, long idLow) {
+    long hash = idHigh * 0x9E3779B97F4A7C15L ^ idLow; // id는 랜덤(또는 해시)이므로 간단히 섞기만
+    return (int) Math.floorMod(hash ^ (hash >>> 32), (long) buckets);
+  }
+
+  private int slot(int bucket, int way) {
+    return HEADER_SIZE + (bucket * WAYS + way) * SLOT_SIZE;
+  }
+
+  private Object lock(int bucket) {
+    return locks[bucket % STRIPES];
+  }
+}
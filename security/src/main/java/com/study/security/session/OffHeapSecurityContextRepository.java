@@ -0,0 +1,303 @@
+package com.study.security.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 로그인한 SecurityContext를 HttpSession(힙) 대신 ContextSlab(힙 밖)에 저장한다. 세션 id는 SCTX 쿠키.
+ * <ul>
+ *   <li>security.context-store.enabled=true 일 때만 사용한다. file을 지정하면 memory-mapped 파일이라 재시작해도 유지된다.</li>
+ *   <li>username과 권한 이름만 바이너리로 저장한다. (비밀번호, 요청 정보(details)는 저장하지 않음)</li>
+ *   <li>UsernamePasswordAuthenticationToken이 아니거나 슬롯보다 크면 HttpSession에 저장한다.</li>
+ *   <li>저장할 때마다(로그인) 새 id를 발급한다. (세션 고정 공격 방지)</li>
+ *   <li>슬롯에는 id 대신 id의 SHA-256 앞 128비트를 키로 쓴다. 파일이나 메모리를 읽어도 쿠키 값을 알 수 없다.
+ *   (id가 128비트 랜덤이라 대입할 수 없으므로 키 없는 해시로 충분하다)</li>
+ * </ul>
+ * 메트릭: security.context-store.size / evictions
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("security.context-store.enabled")
+public class OffHeapSecurityContextRepository implements SecurityContextRepository {
+
+  static final String COOKIE_NAME = "SCTX";
+
+  private static final byte FORMAT = 1;
+  private static final int PLACEMENT_ATTEMPTS = 4;
+
+  private final ContextSlab slab;
+  private final SecurityContextRepository fallback = new HttpSessionSecurityContextRepository();
+  private final SecurityContextHolderStrategy securityContextHolderStrategy =
+      SecurityContextHolder.getContextHolderStrategy();
+  private final SecureRandom random = new SecureRandom();
+  private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(
+      OffHeapSecurityContextRepository::newSha256); // MessageDigest는 스레드 안전하지 않음
+  private final Counter evictions;
+
+  @Autowired
+  public OffHeapSecurityContextRepository(MeterRegistry registry,
+      @Value("${security.context-store.file:}") String file,
+      @Value("${security.context-store.capacity:100000}") int capacity,
+      @Value("${security.context-store.idle-timeout:30m}") Duration idleTimeout) throws IOException {
+    this(registry, StringUtils.hasText(file) ? Path.of(file) : null, capacity, idleTimeout,
+        System::currentTimeMillis);
+  }
+
+  OffHeapSecurityContextRepository(MeterRegistry registry, Path file, int capacity,
+      Duration idleTimeout, LongSupplier clock) throws IOException {
+    this.slab = new ContextSlab(file, capacity, idleTimeout.toMillis(), clock);
+    this.evictions = registry.counter("security.context-store.evictions");
+    registry.gauge("security.context-store.size", slab, ContextSlab::size);
+  }
+
+  @Override
+  public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+    long[] id = id(request);
+    if (id == null) {
+      return fallback.loadDeferredContext(request);
+    }
+    return new DeferredSecurityContext() {
+
+      private SecurityContext context;
+
+      @Override
+      public SecurityContext get() {
+        if (context == null) {
+          context = load(id);
+          if (context == null) {
+            context = securityContextHolderStrategy.createEmptyContext();
+          }
+        }
+        return context;
+      }
+
+      @Override
+      public boolean isGenerated() {
+        return get().getAuthentication() == null;
+      }
+    };
+  }
+
+  @Override
+  @Deprecated
+  public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+    return loadDeferredContext(requestResponseHolder.getRequest()).get();
+  }
+
+  @Override
+  public void saveContext(SecurityContext context, HttpServletRequest request,
+      HttpServletResponse response) {
+    long[] previous = id(request);
+    if (previous != null) {
+      long[] key = slotKey(previous);
+      slab.remove(key[0], key[1]);
+    }
+
+    Authentication authentication = context.getAuthentication();
+    byte[] value = authentication == null ? null : serialize(authentication);
+    if (value == null) {
+      if (previous != null) {
+        writeCookie(request, response, "", true); // 로그아웃
+      }
+      fallback.saveContext(context, request, response);
+      return;
+    }
+
+    // id는 서버가 정하므로 빈 자리가 있는 버킷이 나올 때까지 다시 뽑는다. 그래도 없으면 LRU 축출
+    long[] id = null;
+    for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS && id == null; attempt++) {
+      long[] candidate = newId();
+      long[] key = slotKey(candidate);
+      if (slab.putIfRoom(key[0], key[1], value)) {
+        id = candidate;
+      }
+    }
+    if (id == null) {
+      id = newId();
+      long[] key = slotKey(id);
+      if (slab.put(key[0], key[1], value)) {
+        evictions.increment();
+      }
+    }
+    writeCookie(request, response,
+        HexFormat.of().toHexDigits(id[0]) + HexFormat.of().toHexDigits(id[1]), false);
+  }
+
+  @Override
+  public boolean containsContext(HttpServletRequest request) {
+    long[] id = id(request);
+    return id == null ? fallback.containsContext(request) : load(id) != null;
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    slab.close();
+  }
+
+  private SecurityContext load(long[] id) {
+    long[] key = slotKey(id);
+    byte[] value = slab.get(key[0], key[1]);
+    Authentication authentication = value == null ? null : deserialize(value);
+    if (authentication == null) {
+      return null;
+    }
+    SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+    context.setAuthentication(authentication);
+    return context;
+  }
+
+  // 형식: FORMAT(1) + username + 권한 수(1) + 권한들. 문자열은 길이(2) + UTF-8
+  private static byte[] serialize(Authentication authentication) {
+    if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+        || !authentication.isAuthenticated() || authentication.getAuthorities().size() > 255) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(ContextSlab.MAX_VALUE_SIZE);
+    try {
+      buffer.put(FORMAT);
+      putString(buffer, authentication.getName());
+      buffer.put((byte) authentication.getAuthorities().size());
+      for (GrantedAuthority authority : authentication.getAuthorities()) {
+        putString(buffer, authority.getAuthority());
+      }
+    } catch (BufferOverflowException e) {
+      return null;
+    }
+    byte[] value = new byte[buffer.position()];
+    buffer.flip().get(value);
+    return value;
+  }
+
+  private static Authentication deserialize(byte[] value) {
+    ByteBuffer buffer = ByteBuffer.wrap(value);
+    try {
+      if (buffer.get() != FORMAT) {
+        return null;
+      }
+      String username = getString(buffer);
+      int count = Byte.toUnsignedInt(buffer.get());
+      List<GrantedAuthority> authorities = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        authorities.add(new SimpleGrantedAuthority(getString(buffer)));
+      }
+      UserDetails principal = User.withUsername(username).password("").authorities(authorities)
+          .build();
+      return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      log.debug("corrupted security context slot", e);
+      return null;
+    }
+  }
+
+  private static void putString(ByteBuffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putShort((short) bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // 슬롯 키. 해시가 0이면 빈 슬롯과 구분되지 않지만 확률이 2^-128이므로 무시한다.
+  private long[] slotKey(long[] id) {
+    MessageDigest digest = sha256.get();
+    byte[] hash = digest.digest(ByteBuffer.allocate(16).putLong(id[0]).putLong(id[1]).array());
+    ByteBuffer buffer = ByteBuffer.wrap(hash);
+    return new long[]{buffer.getLong(), buffer.getLong()};
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private long[] newId() {
+    long high;
+    long low;
+    do {
+      high = random.nextLong();
+      low = random.nextLong();
+    } while (high == 0 && low == 0); // 0은 빈 슬롯
+    return new long[]{high, low};
+  }
+
+  private static long[] id(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return null;
+    }
+    for (Cookie cookie : cookies) {
+      String value = cookie.getValue();
+      if (COOKIE_NAME.equals(cookie.getName()) && value != null && value.length() == 32) {
+        try {
+          long high = HexFormat.fromHexDigitsToLong(value, 0, 16);
+          long low = HexFormat.fromHexDigitsToLong(value, 16, 32);
+          return high == 0 && low == 0 ? null : new long[]{high, low};
+        } catch (IllegalArgumentException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  // 브라우저를 닫으면 사라지는 쿠키. 만료는 서버의 idle-timeout으로 처리한다.
+  private static void writeCookie(HttpServletRequest request, HttpServletResponse response,
+      String value, boolean delete) {
+    String path = StringUtils.hasText(request.getContextPath()) ? request.getContextPath() : "/";
+    ResponseCookie.ResponseCookieBuilder cookie = ResponseCookie.from(COOKIE_NAME, value)
+        .path(path)
+        .httpOnly(true)
+        .secure(request.isSecure())
+        .sameSite("Lax");
+    if (delete) {
+      cookie.maxAge(0);
+    }
+    response.addHeader(HttpHeaders.SET_COOKIE, cookie.build().toString());
+  }
+}
@@ -0,0 +1,42 @@
+package com.study.security.token;
+
+import java.time.Instant;
+import java.util.Collection;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+// 검증된 토큰으로 만든 인증. 비밀번호가 없고 만료 시각이 있다.
+public class TokenAuthentication extends AbstractAuthenticationToken {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String username;
+  private final Instant expiresAt;
+
+  TokenAuthentication(String username, Collection<? extends GrantedAuthority> authorities,
+      Instant expiresAt) {
+    super(authorities);
+    this.username = username;
+    this.expiresAt = expiresAt;
+    setAuthenticated(true);
+  }
+
+  @Override
+  public Object getCredentials() {
+    return null;
+  }
+
+  @Override
+  public Object getPrincipal() {
+    return username;
+  }
+
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  // details, authenticated는 요청마다 바뀔 수 있으므로 캐시된 인증은 복사해서 준다.
+  TokenAuthentication copy() {
+    return new TokenAuthentication(username, getAuthorities(), expiresAt);
+  }
+}
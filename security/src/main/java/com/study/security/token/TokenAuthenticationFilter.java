@@ -0,0 +1,59 @@
+package com.study.security.token;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Authorization: Bearer 토큰을 검증해서 SecurityContext에 넣는다. 세션에는 저장하지 않는다.
+ * 토큰이 없으면 그대로 통과시키고(인가에서 거절), 토큰이 잘못되었으면 바로 401.
+ * 빈으로 등록하면 서블릿 필터로도 등록되므로 SecurityConfig에서 직접 만든다.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+  private static final String BEARER = "Bearer ";
+
+  private final TokenService tokenService;
+  private final SecurityContextHolderStrategy securityContextHolderStrategy =
+      SecurityContextHolder.getContextHolderStrategy();
+  // 세션 대신 요청 속성에 저장한다. 에러 디스패치(/error)에서도 인증이 유지되도록.
+  private final SecurityContextRepository securityContextRepository =
+      new RequestAttributeSecurityContextRepository();
+
+  public TokenAuthenticationFilter(TokenService tokenService) {
+    this.tokenService = tokenService;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    try {
+      SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+      context.setAuthentication(tokenService.verify(authorization.substring(BEARER.length()).trim()));
+      securityContextHolderStrategy.setContext(context);
+      securityContextRepository.saveContext(context, request, response);
+    } catch (AuthenticationException e) {
+      securityContextHolderStrategy.clearContext();
+      response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,101 @@
+package com.study.security.token;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 토큰 서명 키 목록. 새 토큰은 active 키로 서명하고, 검증은 목록에 남아 있는 모든 키로 한다.
+ * <ul>
+ *   <li>security.token.keys: "키 id=base64 비밀 키" 목록. 여러 노드가 같은 값을 써야 서로의 토큰을 검증할 수 있다.</li>
+ *   <li>security.token.active-key: 서명에 쓸 키 id. 없으면 목록의 마지막 키.</li>
+ *   <li>설정이 없으면 시작할 때 랜덤 키를 만든다. (단일 노드, 재시작하면 기존 토큰은 무효)</li>
+ *   <li>교체: 새 키를 추가해서 active로 바꾸고, 이전 키는 발급한 토큰이 만료된 뒤(ttl) retire 한다.</li>
+ * </ul>
+ */
+@Component
+public class TokenKeyRing {
+
+  static final String ALGORITHM = "HmacSHA256";
+
+  private final Map<String, SecretKeySpec> keys = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong(); // retire 되면 검증 캐시를 비우기 위해
+  private volatile String activeKeyId;
+
+  public TokenKeyRing(@Value("${security.token.keys:}") List<String> keys,
+      @Value("${security.token.active-key:}") String activeKeyId) {
+    String last = null;
+    for (String key : keys) {
+      if (key.isBlank()) {
+        continue;
+      }
+      String[] idAndSecret = key.split("=", 2);
+      last = idAndSecret[0].trim();
+      add(last, Base64.getDecoder().decode(idAndSecret[1].trim()));
+    }
+    if (last == null) {
+      rotate();
+    } else {
+      activate(activeKeyId.isBlank() ? last : activeKeyId);
+    }
+  }
+
+  public void add(String keyId, byte[] secret) {
+    if (keyId.isEmpty() || keyId.contains(".")) {
+      throw new IllegalArgumentException("invalid key id: " + keyId);
+    }
+    keys.put(keyId, new SecretKeySpec(secret, ALGORITHM));
+  }
+
+  public void activate(String keyId) {
+    if (!keys.containsKey(keyId)) {
+      throw new IllegalArgumentException("unknown key id: " + keyId);
+    }
+    this.activeKeyId = keyId;
+  }
+
+  /**
+   * 랜덤 키를 만들어 active로 바꾼다. 이전 키는 검증용으로 남는다.
+   */
+  public String rotate() {
+    SecureRandom random = new SecureRandom();
+    byte[] secret = new byte[32];
+    random.nextBytes(secret);
+    String keyId;
+    do {
+      keyId = HexFormat.of().toHexDigits(random.nextInt());
+    } while (keys.putIfAbsent(keyId, new SecretKeySpec(secret, ALGORITHM)) != null);
+    activate(keyId);
+    return keyId;
+  }
+
+  /**
+   * 더 이상 검증하지 않는다. 이 키로 서명된 토큰은 바로 무효가 된다.
+   */
+  public void retire(String keyId) {
+    if (keyId.equals(activeKeyId)) {
+      throw new IllegalArgumentException("cannot retire the active key: " + keyId);
+    }
+    keys.remove(keyId);
+    generation.incrementAndGet();
+  }
+
+  String activeKeyId() {
+    return activeKeyId;
+  }
+
+  SecretKeySpec key(String keyId) {
+    return keys.get(keyId);
+  }
+
+  long generation() {
+    return generation.get();
+  }
+}
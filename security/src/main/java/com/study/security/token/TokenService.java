@@ -0,0 +1,174 @@
+package com.study.security.token;
+
+import com.study.security.cache.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * 서버 세션 없이 인증 정보를 담는 HMAC-SHA256 서명 토큰.
+ * <p>
+ * 형식: 키 id.base64url(username).base64url(권한 목록).만료(epoch 초).base64url(서명)
+ * <ul>
+ *   <li>서명 키는 TokenKeyRing에서 관리한다. (키 교체 지원)</li>
+ *   <li>한 번 검증한 토큰은 만료될 때까지 cache-size 개까지 캐시해서 같은 토큰의 HMAC 계산을 건너뛴다.
+ *   토큰 문자열 전체가 키이므로 서명이 한 글자라도 다르면 캐시에 맞지 않는다.</li>
+ *   <li>키가 retire 되면 캐시를 비운다. 검증 중에 retire 되면 그 결과는 캐시하지 않는다.</li>
+ *   <li>캐시된 인증은 요청마다 복사해서 반환한다. (setDetails 등이 다른 요청에 보이지 않도록)</li>
+ * </ul>
+ * 메트릭: security.token.verified-cache.hits / misses, security.token.verifications (HMAC 계산 횟수)
+ */
+@Service
+public class TokenService {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final TokenKeyRing keyRing;
+  private final Duration ttl;
+  private final Clock clock;
+  private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(TokenService::newMac);
+
+  private final BoundedTtlCache<String, TokenAuthentication> verified; // 만료는 토큰의 만료 시각으로 확인
+  private volatile long cacheGeneration;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter verifications;
+
+  public TokenService(TokenKeyRing keyRing, MeterRegistry registry,
+      @Value("${security.token.ttl:15m}") Duration ttl,
+      @Value("${security.token.cache-size:10000}") int cacheSize) {
+    this.keyRing = keyRing;
+    this.ttl = ttl;
+    this.verified = new BoundedTtlCache<>(cacheSize);
+    this.clock = Clock.systemUTC();
+    this.cacheGeneration = keyRing.generation();
+    this.hits = registry.counter("security.token.verified-cache.hits");
+    this.misses = registry.counter("security.token.verified-cache.misses");
+    this.verifications = registry.counter("security.token.verifications");
+    registry.gauge("security.token.verified-cache.size", verified, BoundedTtlCache::size);
+  }
+
+  public String issue(Authentication authentication) {
+    String keyId = keyRing.activeKeyId();
+    String payload = keyId
+        + '.' + encode(authentication.getName())
+        + '.' + encode(String.join(",", AuthorityUtils.authorityListToSet(authentication.getAuthorities())))
+        + '.' + clock.instant().plus(ttl).getEpochSecond();
+    return payload + '.' + ENCODER.encodeToString(sign(keyRing.key(keyId), payload));
+  }
+
+  /**
+   * @throws BadCredentialsException 형식이 틀렸거나, 서명이 맞지 않거나, 만료된 경우
+   */
+  public TokenAuthentication verify(String token) {
+    clearCacheIfKeyRetired();
+    Instant now = clock.instant();
+    TokenAuthentication cached = verified.get(token);
+    if (cached != null) {
+      if (cached.getExpiresAt().isAfter(now)) {
+        hits.increment();
+        return cached.copy();
+      }
+      verified.remove(token);
+    }
+    misses.increment();
+
+    long generation = keyRing.generation(); // 파싱 전에 읽어야 검증 중의 retire를 알 수 있다
+    TokenAuthentication authentication = parse(token, now);
+    verified.put(token, authentication);
+    // 파싱 후 캐시에 넣기 전에 retire 되어 캐시가 이미 비워졌을 수 있으므로 넣은 뒤 다시 확인한다
+    if (keyRing.generation() != generation) {
+      verified.remove(token, authentication);
+    }
+    return authentication.copy();
+  }
+
+  private TokenAuthentication parse(String token, Instant now) {
+    int signatureAt = token.lastIndexOf('.');
+    String[] fields = signatureAt < 0 ? new String[0] : token.substring(0, signatureAt).split("\\.", -1);
+    if (fields.length != 4) {
+      throw new BadCredentialsException("malformed token");
+    }
+    SecretKeySpec key = keyRing.key(fields[0]);
+    if (key == null) {
+      throw new BadCredentialsException("unknown token key");
+    }
+
+    byte[] signature;
+    Instant expiresAt;
+    try {
+      signature = DECODER.decode(token.substring(signatureAt + 1));
+      expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[3]));
+    } catch (IllegalArgumentException e) { // NumberFormatException 포함
+      throw new BadCredentialsException("malformed token");
+    }
+    verifications.increment();
+    if (!MessageDigest.isEqual(signature, sign(key, token.substring(0, signatureAt)))) {
+      throw new BadCredentialsException("invalid token signature");
+    }
+    if (!expiresAt.isAfter(now)) {
+      throw new BadCredentialsException("expired token");
+    }
+
+    String authorities = decode(fields[2]);
+    List<GrantedAuthority> grantedAuthorities = authorities.isEmpty()
+        ? AuthorityUtils.NO_AUTHORITIES
+        : AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
+    return new TokenAuthentication(decode(fields[1]), grantedAuthorities, expiresAt);
+  }
+
+  private void clearCacheIfKeyRetired() {
+    long generation = keyRing.generation();
+    if (generation != cacheGeneration) {
+      verified.clear();
+      cacheGeneration = generation;
+    }
+  }
+
+  private byte[] sign(SecretKeySpec key, String payload) {
+    Mac mac = this.mac.get();
+    try {
+      mac.init(key);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+    return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String encode(String value) {
+    return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decode(String value) {
+    try {
+      return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new BadCredentialsException("malformed token");
+    }
+  }
+
+  private static Mac newMac() {
+    try {
+      return Mac.getInstance(TokenKeyRing.ALGORITHM);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
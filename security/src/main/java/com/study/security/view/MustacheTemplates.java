@@ -0,0 +1,56 @@
+package com.study.security.view;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.mustache.MustacheResourceTemplateLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시작할 때 templates 폴더의 모든 템플릿을 한 번만 컴파일해 둔다.
+ * 컴파일된 Template은 불변이라 여러 스레드에서 같이 사용해도 된다.
+ * (기본 MustacheView는 렌더링할 때마다 템플릿 파일을 다시 읽고 컴파일한다.)
+ */
+@Component
+public class MustacheTemplates {
+
+  public static final String PREFIX = "classpath:/templates/";
+  public static final String SUFFIX = ".html";
+
+  private final Map<String, Template> templates = new HashMap<>();
+
+  public MustacheTemplates(ResourceLoader resourceLoader) throws IOException {
+    MustacheResourceTemplateLoader loader = new MustacheResourceTemplateLoader(PREFIX, SUFFIX);
+    loader.setCharset(StandardCharsets.UTF_8.name());
+    loader.setResourceLoader(resourceLoader);
+    Mustache.Compiler compiler = Mustache.compiler().withLoader(loader); // {{>partial}}도 같은 위치에서
+
+    ResourcePatternResolver resolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    String root = resolver.getResource(PREFIX).getURL().toString();
+    for (Resource resource : resolver.getResources(PREFIX + "**/*" + SUFFIX)) {
+      String path = resource.getURL().toString();
+      String name = path.substring(root.length(), path.length() - SUFFIX.length()); // 예: index, admin/users
+      try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+        templates.put(name, compiler.compile(reader));
+      }
+    }
+  }
+
+  public Template get(String name) {
+    return templates.get(name);
+  }
+
+  public Set<String> names() {
+    return templates.keySet();
+  }
+}
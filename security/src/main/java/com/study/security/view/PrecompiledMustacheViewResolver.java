@@ -0,0 +1,39 @@
+package com.study.security.view;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.InternalResourceView;
+import org.springframework.web.servlet.view.RedirectView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+/**
+ * 뷰 이름 -> 미리 만들어 둔 PrecompiledMustacheView. 없는 이름이면 null (다음 뷰 리졸버로)
+ */
+public class PrecompiledMustacheViewResolver implements ViewResolver {
+
+  private final Map<String, View> views = new HashMap<>();
+
+  public PrecompiledMustacheViewResolver(MustacheTemplates templates, boolean streaming,
+      int bufferPoolSize, int maxBufferSize) {
+    RenderBufferPool bufferPool = new RenderBufferPool(bufferPoolSize, maxBufferSize);
+    for (String name : templates.names()) {
+      views.put(name, new PrecompiledMustacheView(templates.get(name), bufferPool, streaming));
+    }
+  }
+
+  @Override
+  public View resolveViewName(String viewName, Locale locale) {
+    if (viewName.startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)) {
+      return new RedirectView(viewName.substring(UrlBasedViewResolver.REDIRECT_URL_PREFIX.length()),
+          true);
+    }
+    if (viewName.startsWith(UrlBasedViewResolver.FORWARD_URL_PREFIX)) {
+      return new InternalResourceView(
+          viewName.substring(UrlBasedViewResolver.FORWARD_URL_PREFIX.length()));
+    }
+    return views.get(viewName);
+  }
+}
@@ -0,0 +1,38 @@
+package com.study.security.view;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 미리 렌더링한 페이지. 원본과 gzip 압축본을 바이트 배열로 들고 있고, 표현마다 다른 ETag를 쓴다.
+ */
+class PrerenderedPage {
+
+  final byte[] identity;
+  final byte[] gzip;
+  final String identityETag;
+  final String gzipETag;
+
+  PrerenderedPage(MustacheTemplates templates, String viewName) throws IOException {
+    StringWriter writer = new StringWriter();
+    templates.get(viewName).execute(Map.of(), writer);
+    this.identity = writer.toString().getBytes(StandardCharsets.UTF_8);
+    this.gzip = gzip(identity);
+    String hash = DigestUtils.md5DigestAsHex(identity);
+    this.identityETag = "\"" + hash + "\"";
+    this.gzipETag = "\"" + hash + "-gzip\"";
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,116 @@
+package com.study.security.view;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 사용자와 관계없이 내용이 같은 익명 공개 페이지를 미리 렌더링해 두고 시큐리티 필터 체인보다 먼저 응답한다.
+ * <ul>
+ *   <li>SecurityConfig에서 permitAll인 경로만 등록해야 한다. (인증 확인을 건너뛰므로)</li>
+ *   <li>쿼리 스트링 없는 GET/HEAD만 처리하고 나머지는 그대로 통과시킨다.</li>
+ *   <li>시큐리티 필터 체인과 같은 HeaderWriter로 보안 헤더를 붙인다. (HSTS는 HTTPS 요청에만)</li>
+ *   <li>Accept-Encoding에 gzip이 있으면 미리 압축한 본문을 보낸다. (brotli는 JDK에 인코더가 없어서 미지원)</li>
+ * </ul>
+ */
+public class PrerenderedPageFilter extends OncePerRequestFilter {
+
+  private static final String CONTENT_TYPE = "text/html;charset=UTF-8";
+
+  private final Map<String, PrerenderedPage> pages = new HashMap<>();
+  private final List<HeaderWriter> headerWriters;
+
+  /**
+   * @param pages "경로=뷰 이름" 목록. 예: /=index
+   * @param headerWriters 보안 헤더. 시큐리티 필터 체인과 같은 구성을 넘긴다.
+   */
+  public PrerenderedPageFilter(MustacheTemplates templates, List<String> pages,
+      List<HeaderWriter> headerWriters) throws IOException {
+    this.headerWriters = headerWriters;
+    for (String page : pages) {
+      if (page.isBlank()) {
+        continue;
+      }
+      String[] pathAndView = page.split("=", 2);
+      this.pages.put(pathAndView[0].trim(), new PrerenderedPage(templates, pathAndView[1].trim()));
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    return !("GET".equals(method) || "HEAD".equals(method)) || request.getQueryString() != null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    PrerenderedPage page = pages.get(path);
+    if (page == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    String etag = gzip ? page.gzipETag : page.identityETag;
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"); // 매번 ETag로 재검증
+    for (HeaderWriter headerWriter : headerWriters) {
+      headerWriter.writeHeaders(request, response);
+    }
+
+    // ETag 헤더를 붙이고, If-None-Match(여러 값, W/ 접두사 포함)가 일치하면 304로 응답
+    if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+      return;
+    }
+
+    byte[] body = gzip ? page.gzip : page.identity;
+    response.setContentType(CONTENT_TYPE);
+    response.setContentLength(body.length);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    if ("GET".equals(request.getMethod())) {
+      response.getOutputStream().write(body);
+    }
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.startsWith("q=") && !acceptable(param.substring(2))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  // q=0이거나 숫자가 아니면 받지 않는 것으로 본다. (압축하지 않은 본문을 보냄)
+  private static boolean acceptable(String quality) {
+    try {
+      return Double.parseDouble(quality.trim()) > 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.study.security.view;
+
+import java.io.CharArrayWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 렌더링 결과를 모으는 재사용 버퍼. reset() 해도 내부 배열을 유지하므로 풀에 돌려놓고 다시 쓴다.
+ * 한 번에 한 스레드만 사용한다.
+ */
+class RenderBuffer extends CharArrayWriter {
+
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private ByteBuffer bytes;
+
+  RenderBuffer(int initialSize) {
+    super(initialSize);
+    this.bytes = ByteBuffer.allocate(initialSize);
+  }
+
+  /**
+   * 모은 문자를 UTF-8로 인코딩한다. 반환된 버퍼는 다음 reset() 전까지만 유효하다.
+   */
+  ByteBuffer encode() {
+    int maxBytes = (int) (count * encoder.maxBytesPerChar());
+    if (bytes.capacity() < maxBytes) {
+      bytes = ByteBuffer.allocate(maxBytes);
+    }
+    bytes.clear();
+    encoder.reset();
+    encoder.encode(CharBuffer.wrap(buf, 0, count), bytes, true);
+    encoder.flush(bytes);
+    bytes.flip();
+    return bytes;
+  }
+
+  int retainedSize() {
+    return buf.length * 2 + bytes.capacity();
+  }
+}
@@ -0,0 +1,34 @@
+package com.study.security.view;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * RenderBuffer 풀. 비어 있으면 새로 만들고, 가득 찼거나 너무 커진 버퍼는 버린다. (큰 페이지 한 번에 메모리가 계속 잡혀있지 않게)
+ * 가상 스레드에서도 쓸 수 있도록 ThreadLocal 대신 공유 큐를 사용한다.
+ */
+class RenderBufferPool {
+
+  private static final int INITIAL_SIZE = 4 * 1024;
+
+  private final BlockingQueue<RenderBuffer> buffers;
+  private final int maxRetainedSize;
+
+  RenderBufferPool(int poolSize, int maxRetainedSize) {
+    this.buffers = new ArrayBlockingQueue<>(poolSize);
+    this.maxRetainedSize = maxRetainedSize;
+  }
+
+  RenderBuffer acquire() {
+    RenderBuffer buffer = buffers.poll();
+    return buffer != null ? buffer : new RenderBuffer(INITIAL_SIZE);
+  }
+
+  void release(RenderBuffer buffer) {
+    if (buffer.retainedSize() > maxRetainedSize) {
+      return;
+    }
+    buffer.reset();
+    buffers.offer(buffer);
+  }
+}
@@ -0,0 +1,99 @@
+package com.study.security;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IndexControllerTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Test
+	@WithMockUser
+	void index() throws Exception {
+		mockMvc.perform(get("/"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("text/html;charset=UTF-8"))
+				.andExpect(content().string(containsString("안녕하세요~")))
+				.andExpect(header().exists(HttpHeaders.CONTENT_LENGTH));
+	}
+
+	@Test
+	void prerenderedIndex() throws Exception {
+		String etag = mockMvc.perform(get("/"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("안녕하세요~")))
+				.andExpect(header().string("X-Frame-Options", "DENY"))
+				.andExpect(header().string("X-Content-Type-Options", "nosniff"))
+				.andExpect(header().doesNotExist("Strict-Transport-Security")) // HTTPS 요청에만
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void prerenderedIndexSendsSameSecurityHeadersAsChain() throws Exception {
+		MockHttpServletResponse prerendered = mockMvc.perform(get("/").secure(true))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+		MockHttpServletResponse chain = mockMvc.perform(get("/user").secure(true))
+				.andReturn().getResponse();
+
+		for (String name : new String[] {"Strict-Transport-Security", "X-Content-Type-Options",
+				"X-Frame-Options", "X-XSS-Protection"}) {
+			Assertions.assertThat(prerendered.getHeader(name)).as(name)
+					.isNotNull()
+					.isEqualTo(chain.getHeader(name));
+		}
+	}
+
+	@Test
+	void prerenderedIndexGzip() throws Exception {
+		byte[] body = mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			Assertions.assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).contains("안녕하세요~");
+		}
+	}
+
+	@Test
+	void prerenderedIndexInvalidQuality() throws Exception {
+		mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=x"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(content().string(containsString("안녕하세요~")));
+	}
+
+	@Test
+	void securedPageStillRequiresLogin() throws Exception {
+		mockMvc.perform(get("/user").accept(MediaType.TEXT_HTML))
+				.andExpect(status().is3xxRedirection()); // 로그인 페이지로
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.study.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.security.auth.JpaUserDetailsService;
+import com.study.security.entity.Role;
+import com.study.security.entity.User;
+import com.study.security.repository.RoleRepository;
+import com.study.security.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 배치 조회는 여러 스레드에서 일어나므로 트랜잭션 없이 커밋된 데이터로 테스트
+@SpringBootTest(properties = "security.user-cache.batch-window=50ms")
+class JpaUserDetailsServiceTests {
+
+	@Autowired
+	JpaUserDetailsService userDetailsService;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	RoleRepository roleRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void before() {
+		Role role = roleRepository.save(new Role("ROLE_USER"));
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			User user = new User("user" + i, "{noop}password" + i);
+			user.addRole(role);
+			users.add(user);
+		}
+		userRepository.saveAll(users);
+		userDetailsService.evictAll();
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+		roleRepository.deleteAll();
+	}
+
+	@Test
+	void cachedUserIsCopied() {
+		UserDetails first = userDetailsService.loadUserByUsername("user1");
+		((CredentialsContainer) first).eraseCredentials(); // 인증 후 ProviderManager가 하는 일
+
+		double hits = counter("security.user-cache.hits");
+		UserDetails second = userDetailsService.loadUserByUsername("user1");
+		assertThat(counter("security.user-cache.hits")).isEqualTo(hits + 1);
+		assertThat(second.getPassword()).isEqualTo("{noop}password1");
+		assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+	}
+
+	@Test
+	void usernameIsCaseInsensitive() {
+		// MySQL 기본 collation은 대소문자를 구분하지 않으므로 USER1로 user1이 조회된다
+		assertThat(userDetailsService.loadUserByUsername("USER1").getUsername()).isEqualTo("user1");
+
+		double hits = counter("security.user-cache.hits");
+		userDetailsService.loadUserByUsername("user1");
+		assertThat(counter("security.user-cache.hits")).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void passwordChangeEvicts() {
+		userDetailsService.loadUserByUsername("user1");
+
+		transactionTemplate.executeWithoutResult(status ->
+				userRepository.findByUsername("user1").orElseThrow().changePassword("{noop}changed"));
+
+		assertThat(userDetailsService.loadUserByUsername("user1").getPassword()).isEqualTo("{noop}changed");
+	}
+
+	@Test
+	void roleChangeEvicts() {
+		userDetailsService.loadUserByUsername("user1");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Role admin = roleRepository.save(new Role("ROLE_ADMIN"));
+			userRepository.findByUsername("user1").orElseThrow().addRole(admin);
+		});
+
+		assertThat(userDetailsService.loadUserByUsername("user1").getAuthorities())
+				.extracting("authority").containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+	}
+
+	@Test
+	void concurrentMissesAreBatched() throws Exception {
+		double queries = counter("security.user-cache.db-queries");
+
+		ExecutorService executor = Executors.newFixedThreadPool(20);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<UserDetails>> futures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			String username = "user" + i;
+			futures.add(executor.submit(() -> {
+				start.await();
+				return userDetailsService.loadUserByUsername(username);
+			}));
+		}
+		start.countDown();
+		for (int i = 0; i < 20; i++) {
+			assertThat(futures.get(i).get().getUsername()).isEqualTo("user" + i);
+		}
+		executor.shutdown();
+
+		assertThat(counter("security.user-cache.db-queries") - queries).isLessThanOrEqualTo(2);
+	}
+
+	double counter(String name) {
+		return meterRegistry.counter(name).count();
+	}
+
+}
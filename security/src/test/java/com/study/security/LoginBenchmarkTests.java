@@ -0,0 +1,147 @@
+package com.study.security;
+
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * http basic 로그인 처리량과, 로그인이 몰리는 동안 다른 요청(익명 페이지 렌더링)의 지연 시간.
+ * ./gradlew test --tests '*LoginBenchmarkTests' -Dbenchmark=true
+ * 비교: -Dbenchmark.hash-threads=200 -Dbenchmark.hash-queue=10000 (해싱 제한 없음),
+ * -Dbenchmark.verified-cache=true (검증된 비밀번호 캐시)
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"security.password-hash.threads=${benchmark.hash-threads:0}",
+		"security.password-hash.queue-capacity=${benchmark.hash-queue:32}",
+		"security.password-hash.verified-cache.enabled=${benchmark.verified-cache:false}"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginBenchmarkTests {
+
+	static final int USERS = 8; // 클라이언트 여러 개가 같은 계정으로 반복 인증
+	static final int CLIENTS = 64;
+	static final long WARMUP_MILLIS = 10_000;
+	static final long DURATION_MILLIS = 10_000;
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	HttpClient httpClient = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void before() {
+		String encoded = passwordEncoder.encode("password");
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(new User("user" + i, encoded));
+		}
+		userRepository.saveAll(users);
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void login() throws Exception {
+		URI secured = URI.create("http://localhost:" + port + "/user");
+		URI page = URI.create("http://localhost:" + port + "/?full=true");
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicBoolean measuring = new AtomicBoolean();
+		AtomicLong logins = new AtomicLong();
+		AtomicLong rejected = new AtomicLong();
+
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENTS + 1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int c = 0; c < CLIENTS; c++) {
+			String authorization = "Basic " + Base64.getEncoder()
+					.encodeToString(("user" + c % USERS + ":password").getBytes(StandardCharsets.UTF_8));
+			futures.add(executor.submit(() -> {
+				while (running.get()) {
+					HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(secured)
+							.header("Authorization", authorization).build(), HttpResponse.BodyHandlers.discarding());
+					switch (response.statusCode()) {
+						case 404 -> { // 인증 성공, 없는 페이지
+							if (measuring.get()) {
+								logins.incrementAndGet();
+							}
+						}
+						case 503 -> { // Retry-After를 지키는 클라이언트
+							if (measuring.get()) {
+								rejected.incrementAndGet();
+							}
+							Thread.sleep(1_000);
+						}
+						default -> throw new IllegalStateException("status " + response.statusCode());
+					}
+				}
+				return null;
+			}));
+		}
+
+		// 로그인과 상관없는 요청의 지연 시간
+		List<Long> latencies = new ArrayList<>();
+		Future<?> probe = executor.submit(() -> {
+			while (running.get()) {
+				long begin = System.nanoTime();
+				httpClient.send(HttpRequest.newBuilder(page).build(), HttpResponse.BodyHandlers.discarding());
+				if (measuring.get()) {
+					latencies.add(System.nanoTime() - begin);
+				}
+				Thread.sleep(10);
+			}
+			return null;
+		});
+
+		Thread.sleep(WARMUP_MILLIS);
+		measuring.set(true);
+		Thread.sleep(DURATION_MILLIS);
+		running.set(false);
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		probe.get();
+		executor.shutdown();
+
+		latencies.sort(null);
+		System.out.printf("logins: %.0f/s, rejected: %.0f/s, page p50: %.1fms, p99: %.1fms%n",
+				logins.get() / (DURATION_MILLIS / 1e3), rejected.get() / (DURATION_MILLIS / 1e3),
+				latencies.get(latencies.size() / 2) / 1e6, latencies.get(latencies.size() * 99 / 100) / 1e6);
+		System.out.printf("hashes: %d, mean queue wait: %.1fms, verified hits: %.0f%n",
+				meterRegistry.timer("security.password-hash.wait").count(),
+				meterRegistry.timer("security.password-hash.wait").mean(java.util.concurrent.TimeUnit.MILLISECONDS),
+				meterRegistry.counter("security.password-hash.verified-cache.hits").count());
+	}
+
+}
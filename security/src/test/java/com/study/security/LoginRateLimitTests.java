@@ -0,0 +1,71 @@
+package com.study.security;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+		"security.login-rate-limit.max-failures-per-username=3",
+		"security.login-rate-limit.max-failures-per-ip=5"})
+@AutoConfigureMockMvc
+class LoginRateLimitTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@BeforeEach
+	void before() {
+		userRepository.save(new User("member1", "{noop}password"));
+		userRepository.save(new User("member2", "{noop}password"));
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void limitPerUsernameAndIp() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/user").with(httpBasic("member1", "wrong")))
+					.andExpect(status().isUnauthorized());
+		}
+		// 비밀번호가 맞아도 DB 조회/해싱 없이 거절
+		mockMvc.perform(get("/user").with(httpBasic("MEMBER1", "password")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+		mockMvc.perform(post("/login").param("username", "member1").param("password", "password").with(csrf()))
+				.andExpect(status().isTooManyRequests());
+
+		// 다른 username은 IP 제한(5)까지
+		mockMvc.perform(get("/user").with(httpBasic("member2", "password")))
+				.andExpect(status().isNotFound());
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/login").param("username", "nobody" + i).param("password", "wrong").with(csrf()))
+					.andExpect(status().is3xxRedirection());
+		}
+		mockMvc.perform(get("/user").with(httpBasic("member2", "password")))
+				.andExpect(status().isTooManyRequests());
+		// 토큰 인증은 제한 대상이 아님
+		mockMvc.perform(get("/api/me"))
+				.andExpect(status().isUnauthorized());
+	}
+
+}
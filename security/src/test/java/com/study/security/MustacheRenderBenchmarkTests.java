@@ -0,0 +1,107 @@
+package com.study.security;
+
+import com.study.security.view.MustacheTemplates;
+import com.study.security.view.PrecompiledMustacheViewResolver;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.web.servlet.view.MustacheViewResolver;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+
+/**
+ * 기존 MustacheViewResolver(렌더링마다 컴파일)와 미리 컴파일한 뷰의 렌더링 처리량, 렌더링당 할당량 비교.
+ * ./gradlew test --tests '*MustacheRenderBenchmarkTests' -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MustacheRenderBenchmarkTests {
+
+	static final int WARMUP = 20_000;
+	static final int ITERATIONS = 100_000;
+
+	@Test
+	void render() throws Exception {
+		GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+		context.refresh();
+		MustacheViewResolver legacy = new MustacheViewResolver();
+		legacy.setCharset("UTF-8");
+		legacy.setContentType("text/html; charset=UTF-8");
+		legacy.setPrefix(MustacheTemplates.PREFIX);
+		legacy.setSuffix(MustacheTemplates.SUFFIX);
+		legacy.setApplicationContext(context);
+
+		MustacheTemplates templates = new MustacheTemplates(new DefaultResourceLoader());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+
+		measure("MustacheViewResolver", legacy.resolveViewName("index", Locale.KOREA), request);
+		measure("precompiled", new PrecompiledMustacheViewResolver(templates, false, 64, 262144)
+				.resolveViewName("index", Locale.KOREA), request);
+		measure("precompiled(streaming)", new PrecompiledMustacheViewResolver(templates, true, 64, 262144)
+				.resolveViewName("index", Locale.KOREA), request);
+		context.close();
+	}
+
+	void measure(String name, View view, MockHttpServletRequest request) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			view.render(Map.of(), request, new BenchmarkResponse());
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long allocated = threads.getCurrentThreadAllocatedBytes();
+		long begin = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			view.render(Map.of(), request, new BenchmarkResponse());
+		}
+		long elapsed = System.nanoTime() - begin;
+		allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+		// 응답 객체 생성 비용은 양쪽에 똑같이 포함된다.
+		System.out.printf("%s: %.0f renders/s, %d bytes/render%n", name, ITERATIONS / (elapsed / 1e9),
+				allocated / ITERATIONS);
+	}
+
+	/**
+	 * MockHttpServletResponse의 출력 스트림은 배열 쓰기를 1바이트씩 처리하므로 톰캣처럼 한 번에 복사하도록 바꾼다.
+	 */
+	static class BenchmarkResponse extends MockHttpServletResponse {
+
+		final ByteArrayOutputStream content = new ByteArrayOutputStream(4096);
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return new ServletOutputStream() {
+				@Override
+				public void write(int b) {
+					content.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					content.write(b, off, len);
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+				}
+			};
+		}
+	}
+
+}
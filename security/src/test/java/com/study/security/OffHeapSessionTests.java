@@ -0,0 +1,63 @@
+package com.study.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest(properties = "security.context-store.enabled=true")
+@AutoConfigureMockMvc
+class OffHeapSessionTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@BeforeEach
+	void before() {
+		userRepository.save(new User("member1", "{noop}password"));
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void loginWithoutHttpSession() throws Exception {
+		MvcResult login = mockMvc.perform(post("/login")
+						.param("username", "member1").param("password", "password").with(csrf()))
+				.andExpect(status().is3xxRedirection())
+				.andReturn();
+		assertThat(login.getRequest().getSession(false)).isNull();
+		Cookie cookie = login.getResponse().getCookie("SCTX");
+
+		// 인증은 통과하고 없는 페이지라서 404
+		MvcResult page = mockMvc.perform(get("/user").cookie(cookie))
+				.andExpect(status().isNotFound())
+				.andReturn();
+		assertThat(page.getRequest().getSession(false)).isNull();
+
+		mockMvc.perform(post("/logout").cookie(cookie).with(csrf()))
+				.andExpect(cookie().maxAge("SCTX", 0));
+		mockMvc.perform(get("/user").cookie(cookie))
+				.andExpect(status().isUnauthorized());
+	}
+
+}
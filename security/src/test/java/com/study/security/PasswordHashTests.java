@@ -0,0 +1,122 @@
+package com.study.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.study.security.auth.OffloadingPasswordEncoder;
+import com.study.security.auth.PasswordHashRejectedException;
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "security.password-hash.verified-cache.enabled=true")
+@AutoConfigureMockMvc
+class PasswordHashTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void before() {
+		userRepository.save(new User("member1", passwordEncoder.encode("password")));
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void login() throws Exception {
+		// 인증은 통과하고 없는 페이지라서 404
+		mockMvc.perform(get("/user").with(httpBasic("member1", "password")))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/user").with(httpBasic("member1", "wrong")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void verifiedCredentialSkipsHashing() throws Exception {
+		double hits = counter("security.password-hash.verified-cache.hits");
+
+		mockMvc.perform(get("/user").with(httpBasic("member1", "password")))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/user").with(httpBasic("member1", "password")))
+				.andExpect(status().isNotFound());
+		assertThat(counter("security.password-hash.verified-cache.hits")).isEqualTo(hits + 1);
+
+		// 틀린 비밀번호는 캐시에 맞지 않으므로 다시 해싱해서 거절
+		mockMvc.perform(get("/user").with(httpBasic("member1", "wrong")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void rejectWhenQueueIsFull() throws Exception {
+		CountDownLatch hashing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder slow = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				hashing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return true;
+			}
+		};
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(slow, 1, 1, registry);
+		try {
+			CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+			hashing.await();
+			CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+			while (registry.get("security.password-hash.queue").gauge().value() < 1) { // 풀 1개 실행 중 + 큐 1개
+				Thread.onSpinWait();
+			}
+
+			assertThatThrownBy(() -> encoder.matches("c", "c"))
+					.isInstanceOf(PasswordHashRejectedException.class);
+
+			release.countDown();
+			assertThat(running.get()).isTrue();
+			assertThat(queued.get()).isTrue();
+		} finally {
+			encoder.close();
+		}
+	}
+
+	double counter(String name) {
+		return meterRegistry.counter(name).count();
+	}
+
+}
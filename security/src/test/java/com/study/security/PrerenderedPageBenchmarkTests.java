@@ -0,0 +1,71 @@
+package com.study.security;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * 미리 렌더링한 응답(시큐리티 필터 체인 전)과 기존 경로(시큐리티 필터 체인 + 뷰 렌더링)의 처리량 비교.
+ * 쿼리 스트링이 붙으면 PrerenderedPageFilter를 통과하므로 같은 페이지로 기존 경로를 측정한다.
+ * ./gradlew test --tests '*PrerenderedPageBenchmarkTests' -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PrerenderedPageBenchmarkTests {
+
+	static final int CLIENTS = 8;
+	static final int WARMUP = 2_000;
+	static final int REQUESTS = 10_000;
+
+	@LocalServerPort
+	int port;
+
+	HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	void index() throws Exception {
+		measure("security chain + render", URI.create("http://localhost:" + port + "/?full=true"));
+		measure("prerendered", URI.create("http://localhost:" + port + "/"));
+	}
+
+	void measure(String name, URI uri) throws Exception {
+		run(uri, WARMUP);
+		long begin = System.nanoTime();
+		run(uri, REQUESTS);
+		long elapsed = System.nanoTime() - begin;
+		System.out.printf("%s: %.0f requests/s%n", name, CLIENTS * REQUESTS / (elapsed / 1e9));
+	}
+
+	void run(URI uri, int requests) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int c = 0; c < CLIENTS; c++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < requests; i++) {
+					HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).build(),
+							HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() != 200) {
+						throw new IllegalStateException("status " + response.statusCode());
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+	}
+
+}
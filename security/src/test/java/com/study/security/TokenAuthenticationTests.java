@@ -0,0 +1,119 @@
+package com.study.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import com.study.security.token.TokenAuthentication;
+import com.study.security.token.TokenKeyRing;
+import com.study.security.token.TokenService;
+import java.util.Base64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenAuthenticationTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	TokenKeyRing tokenKeyRing;
+
+	@Autowired
+	TokenService tokenService;
+
+	@BeforeEach
+	void before() {
+		userRepository.save(new User("member1", "{noop}password"));
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void stateless() throws Exception {
+		String token = issue();
+
+		MvcResult result = mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.username").value("member1"))
+				.andReturn();
+		assertThat(result.getRequest().getSession(false)).isNull();
+
+		mockMvc.perform(get("/api/me"))
+				.andExpect(status().isUnauthorized());
+		// 토큰으로 토큰을 다시 발급받을 수 없음
+		mockMvc.perform(post("/api/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void tamperedToken() throws Exception {
+		String token = issue();
+		String[] fields = token.split("\\.");
+		fields[1] = Base64.getUrlEncoder().withoutPadding().encodeToString("admin".getBytes());
+
+		mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + String.join(".", fields)))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void keyRotation() throws Exception {
+		String oldKeyId = tokenKeyRing.rotate();
+		String oldToken = issue();
+		tokenKeyRing.rotate();
+		String newToken = issue();
+
+		// 교체 후에도 이전 키로 서명한 토큰은 retire 전까지 유효
+		mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken))
+				.andExpect(status().isOk());
+
+		tokenKeyRing.retire(oldKeyId);
+		mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + newToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void cachedAuthenticationIsCopied() throws Exception {
+		String token = issue();
+
+		TokenAuthentication first = tokenService.verify(token);
+		first.setDetails("request1"); // 요청마다 WebAuthenticationDetails 등을 넣을 수 있음
+		TokenAuthentication second = tokenService.verify(token);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getDetails()).isNull();
+		assertThat(second.getName()).isEqualTo("member1");
+	}
+
+	String issue() throws Exception {
+		String body = mockMvc.perform(post("/api/token").with(httpBasic("member1", "password")))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.token");
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.study.security;
+
+import com.jayway.jsonpath.JsonPath;
+import com.study.security.entity.User;
+import com.study.security.repository.UserRepository;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * 요청당 인증 비용: 세션(폼 로그인 후 JSESSIONID) vs 서명 토큰(Bearer).
+ * 인증 외의 차이를 없애려고 둘 다 인증 후 없는 경로(404)를 요청한다.
+ * ./gradlew test --tests '*TokenBenchmarkTests' -Dbenchmark=true
+ * 검증 캐시 없이: -Dbenchmark.token-cache-size=0
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = "security.token.cache-size=${benchmark.token-cache-size:10000}")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TokenBenchmarkTests {
+
+	static final int CLIENTS = 8;
+	static final int WARMUP = 2_000;
+	static final int REQUESTS = 10_000;
+	static final Pattern CSRF = Pattern.compile("name=\"_csrf\" type=\"hidden\" value=\"([^\"]+)\"");
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	UserRepository userRepository;
+
+	HttpClient httpClient = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void before() {
+		userRepository.save(new User("member1", "{noop}password"));
+	}
+
+	@AfterEach
+	void after() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void authentication() throws Exception {
+		HttpRequest session = HttpRequest.newBuilder(uri("/user"))
+				.header("Cookie", sessionCookie()).build();
+		HttpRequest token = HttpRequest.newBuilder(uri("/api/user"))
+				.header("Authorization", "Bearer " + token()).build();
+
+		measure("session", session, 404);
+		measure("token", token, 404);
+	}
+
+	String sessionCookie() throws Exception {
+		HttpResponse<String> loginPage = httpClient.send(HttpRequest.newBuilder(uri("/login")).build(),
+				HttpResponse.BodyHandlers.ofString());
+		Matcher csrf = CSRF.matcher(loginPage.body());
+		csrf.find();
+		String form = "username=member1&password=password&_csrf=" + csrf.group(1);
+		HttpResponse<Void> login = httpClient.send(HttpRequest.newBuilder(uri("/login"))
+				.header("Cookie", cookie(loginPage))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+		return cookie(login); // 로그인하면 세션 id가 바뀐다
+	}
+
+	String token() throws Exception {
+		String basic = Base64.getEncoder().encodeToString("member1:password".getBytes(StandardCharsets.UTF_8));
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/api/token"))
+				.header("Authorization", "Basic " + basic)
+				.POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+		return JsonPath.read(response.body(), "$.token");
+	}
+
+	void measure(String name, HttpRequest request, int status) throws Exception {
+		run(request, status, WARMUP);
+		long begin = System.nanoTime();
+		run(request, status, REQUESTS);
+		long elapsed = System.nanoTime() - begin;
+		System.out.printf("%s: %.0f requests/s%n", name, CLIENTS * REQUESTS / (elapsed / 1e9));
+	}
+
+	void run(HttpRequest request, int status, int requests) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int c = 0; c < CLIENTS; c++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < requests; i++) {
+					HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() != status) {
+						throw new IllegalStateException("status " + response.statusCode());
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+	}
+
+	URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	static String cookie(HttpResponse<?> response) {
+		return response.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+	}
+
+}
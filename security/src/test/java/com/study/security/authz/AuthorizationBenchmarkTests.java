@@ -0,0 +1,87 @@
+package com.study.security.authz;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+/**
+ * 규칙 500개일 때 요청 하나의 인가 비용.
+ * RequestMatcher 목록(authorizeHttpRequests 기본 방식) vs 트라이 vs 트라이 + 결정 캐시.
+ * ./gradlew test --tests '*AuthorizationBenchmarkTests' -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AuthorizationBenchmarkTests {
+
+	static final int RULES = 500;
+	static final int PATHS = 1_000;
+	static final int OPERATIONS = 2_000_000;
+
+	@Test
+	void authorization() {
+		RequestMatcherDelegatingAuthorizationManager.Builder matchers = RequestMatcherDelegatingAuthorizationManager.builder();
+		CompiledAuthorizationManager.Builder trie = CompiledAuthorizationManager.builder().cacheSize(0);
+		CompiledAuthorizationManager.Builder cached = CompiledAuthorizationManager.builder();
+		for (int i = 0; i < RULES; i++) {
+			HttpMethod method = i % 2 == 0 ? HttpMethod.GET : HttpMethod.POST;
+			String pattern = "/api/resource" + i + "/{id}/**";
+			matchers.add(new AntPathRequestMatcher(pattern, method.name()), AuthorityAuthorizationManager.hasRole("USER"));
+			trie.hasAnyRole(method, pattern, "USER");
+			cached.hasAnyRole(method, pattern, "USER");
+		}
+		matchers.add(AntPathRequestMatcher.antMatcher("/**"), AuthenticatedAuthorizationManager.authenticated());
+		trie.authenticated("/**");
+		cached.authenticated("/**");
+
+		HttpServletRequest[] requests = new HttpServletRequest[PATHS];
+		RequestAuthorizationContext[] contexts = new RequestAuthorizationContext[PATHS];
+		for (int i = 0; i < PATHS; i++) {
+			int rule = i % RULES;
+			requests[i] = new MockHttpServletRequest(rule % 2 == 0 ? "GET" : "POST",
+					"/api/resource" + rule + "/" + i + "/detail");
+			contexts[i] = new RequestAuthorizationContext(requests[i]);
+		}
+		TestingAuthenticationToken token = new TestingAuthenticationToken("member1", null, "ROLE_USER");
+		token.setAuthenticated(true);
+		Supplier<Authentication> authentication = () -> token;
+
+		for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+			AuthorizationManager<HttpServletRequest> requestMatchers = matchers.build();
+			measure("request matchers", OPERATIONS / 20,
+					i -> requestMatchers.check(authentication, requests[i % PATHS]).isGranted());
+			CompiledAuthorizationManager compiled = trie.build();
+			measure("trie", OPERATIONS,
+					i -> compiled.check(authentication, contexts[i % PATHS]).isGranted());
+			CompiledAuthorizationManager compiledWithCache = cached.build();
+			measure("trie + decision cache", OPERATIONS,
+					i -> compiledWithCache.check(authentication, contexts[i % PATHS]).isGranted());
+		}
+	}
+
+	void measure(String name, int operations, IntPredicate check) {
+		int granted = 0;
+		long begin = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			if (check.test(i)) {
+				granted++;
+			}
+		}
+		long elapsed = System.nanoTime() - begin;
+		if (granted != operations) {
+			throw new IllegalStateException(name + ": denied " + (operations - granted));
+		}
+		System.out.printf("%s: %.0f ns/request%n", name, (double) elapsed / operations);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.study.security.authz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+class CompiledAuthorizationManagerTests {
+
+	Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+			AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+	Authentication user = authenticated("ROLE_USER");
+	Authentication admin = authenticated("ROLE_ADMIN");
+
+	@Test
+	void firstMatchingRuleWins() {
+		CompiledAuthorizationManager manager = CompiledAuthorizationManager.builder()
+				.permitAll("/", "/public/**")
+				.denyAll("/public/secret")
+				.hasAnyRole(HttpMethod.DELETE, "/members/{id}", "ADMIN")
+				.authenticated("/members/*")
+				.hasAnyRole(null, "/admin/**", "ADMIN")
+				.authenticated("/**")
+				.build();
+
+		assertThat(granted(manager, anonymous, "GET", "/")).isTrue();
+		assertThat(granted(manager, anonymous, "GET", "/public")).isTrue(); // ** 는 0개 세그먼트도 포함
+		assertThat(granted(manager, anonymous, "GET", "/public/secret")).isTrue(); // 앞의 규칙이 우선
+		assertThat(granted(manager, anonymous, "GET", "/members/1")).isFalse();
+		assertThat(granted(manager, user, "GET", "/members/1")).isTrue();
+		assertThat(granted(manager, user, "DELETE", "/members/1")).isFalse();
+		assertThat(granted(manager, admin, "DELETE", "/members/1")).isTrue();
+		assertThat(granted(manager, user, "GET", "/members/1/team")).isTrue(); // /** 에 걸림
+		assertThat(granted(manager, user, "GET", "/admin/users")).isFalse();
+		assertThat(granted(manager, admin, "GET", "/admin")).isTrue();
+	}
+
+	@Test
+	void denyWhenNoRuleMatches() {
+		CompiledAuthorizationManager manager = CompiledAuthorizationManager.builder()
+				.permitAll("/members/*")
+				.build();
+
+		assertThat(granted(manager, user, "GET", "/members")).isFalse();
+		assertThat(granted(manager, user, "GET", "/members/")).isFalse(); // 빈 세그먼트는 * 와 맞지 않음
+		assertThat(granted(manager, user, "GET", "/teams/1")).isFalse();
+	}
+
+	@Test
+	void cachedDecisionDependsOnAuthorities() {
+		CompiledAuthorizationManager manager = CompiledAuthorizationManager.builder()
+				.hasAnyRole(null, "/admin/**", "ADMIN")
+				.cacheSize(2)
+				.build();
+
+		for (int i = 0; i < 3; i++) { // 캐시에서 꺼내도 결과가 같아야 함
+			assertThat(granted(manager, admin, "GET", "/admin/users")).isTrue();
+			assertThat(granted(manager, user, "GET", "/admin/users")).isFalse();
+			assertThat(granted(manager, authenticated("ROLE_USER", "ROLE_ADMIN"), "GET", "/admin/users")).isTrue();
+		}
+	}
+
+	@Test
+	void roleHierarchy() {
+		RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+		roleHierarchy.setHierarchy("ROLE_ADMIN > ROLE_USER");
+		CompiledAuthorizationManager manager = CompiledAuthorizationManager.builder()
+				.hasAnyRole(null, "/members/**", "USER")
+				.roleHierarchy(roleHierarchy)
+				.build();
+
+		assertThat(granted(manager, admin, "GET", "/members")).isTrue();
+		assertThat(granted(manager, anonymous, "GET", "/members")).isFalse();
+	}
+
+	@Test
+	void unsupportedPattern() {
+		assertThatThrownBy(() -> CompiledAuthorizationManager.builder().permitAll("/**/*.html").build())
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CompiledAuthorizationManager.builder().permitAll("/css/*.css").build())
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	static boolean granted(CompiledAuthorizationManager manager, Authentication authentication, String method,
+			String path) {
+		return manager.check(authentication, method, path).isGranted();
+	}
+
+	static Authentication authenticated(String... authorities) {
+		TestingAuthenticationToken authentication = new TestingAuthenticationToken("member1", null, authorities);
+		authentication.setAuthenticated(true);
+		return authentication;
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.study.security.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTests {
+
+	static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+	AtomicLong now = new AtomicLong(MINUTE * 100);
+
+	BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(3, Duration.ofMinutes(1), now::get);
+
+	@Test
+	void expiresAfterTtl() {
+		cache.put("a", "1");
+		now.addAndGet(MINUTE);
+		assertThat(cache.get("a")).isEqualTo("1");
+
+		now.incrementAndGet();
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero(); // 조회할 때 지운다
+	}
+
+	@Test
+	void evictsOldestWhenFull() {
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+		cache.put("d", "4");
+
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("d")).isEqualTo("4");
+	}
+
+	@Test
+	void replacedEntryIsNotEvictedByItsOldPosition() {
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("a", "1'"); // 큐에 이전 a가 남아 있다
+		cache.put("c", "3");
+
+		// 이전 a가 밀려나도 새 a는 남는다
+		assertThat(cache.get("a")).isEqualTo("1'");
+		assertThat(cache.get("b")).isEqualTo("2");
+		assertThat(cache.get("c")).isEqualTo("3");
+	}
+
+	@Test
+	void sizeStaysBoundedUnderChurn() {
+		for (int i = 0; i < 10_000; i++) {
+			cache.put("key" + (i % 5), Integer.toString(i));
+			cache.remove("key" + ((i + 2) % 5));
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void removeOnlyMatchingValue() {
+		cache.put("a", "1");
+		cache.remove("a", "2");
+		assertThat(cache.get("a")).isEqualTo("1");
+		cache.remove("a", "1");
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	void zeroSizeStoresNothing() {
+		BoundedTtlCache<String, String> disabled = new BoundedTtlCache<>(0);
+		disabled.put("a", "1");
+		assertThat(disabled.get("a")).isNull();
+	}
+
+}
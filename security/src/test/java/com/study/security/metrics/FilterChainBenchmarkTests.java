@@ -0,0 +1,124 @@
+package com.study.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.security.token.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+/**
+ * 시큐리티 필터 체인(FilterChainProxy)만의 요청당 비용. MockMvc 없이 합성 요청을 직접 넣고 서블릿은 아무것도 하지 않는다.
+ * 시나리오마다 p50이 예산을 넘으면 실패하므로 보안 설정을 바꿀 때 돌려 본다. 필터별 자기 시간도 출력한다.
+ * (p99는 GC와 합성 요청 생성 비용에 흔들려서 출력만 한다)
+ * ./gradlew test --tests '*FilterChainBenchmarkTests' -Dbenchmark=true
+ * 예산 변경: -Dbenchmark.filter-chain.budget-micros=100, 측정 비율: -Dbenchmark.filter-timing.sample-rate=1
+ */
+@SpringBootTest(properties = "security.filter-timing.sample-rate=${benchmark.filter-timing.sample-rate:0.01}")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FilterChainBenchmarkTests {
+
+	static final int WARMUP = 20_000;
+	static final int REQUESTS = 100_000;
+	static final long BUDGET_MICROS = Long.getLong("benchmark.filter-chain.budget-micros", 200);
+
+	@Autowired
+	FilterChainProxy filterChainProxy;
+
+	@Autowired
+	TokenService tokenService;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	void filterChain() throws Exception {
+		User user = new User("member1", "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+		Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, null,
+				user.getAuthorities());
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(authentication));
+		String token = tokenService.issue(authentication);
+
+		measure("anonymous GET /", 200, () -> new MockHttpServletRequest("GET", "/"));
+		measure("anonymous GET /user", 401, () -> new MockHttpServletRequest("GET", "/user"));
+		measure("session GET /user", 200, () -> {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user");
+			request.setSession(session);
+			return request;
+		});
+		measure("token GET /api/me", 200, () -> {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me");
+			request.addHeader("Authorization", "Bearer " + token);
+			return request;
+		});
+	}
+
+	void measure(String name, int expectedStatus, Supplier<MockHttpServletRequest> requests) throws Exception {
+		FilterChain servlet = (request, response) -> {
+		};
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		filterChainProxy.doFilter(requests.get(), first, servlet);
+		assertThat(first.getStatus()).as(name).isEqualTo(expectedStatus);
+
+		for (int i = 0; i < WARMUP; i++) {
+			filterChainProxy.doFilter(requests.get(), new MockHttpServletResponse(), servlet);
+		}
+		Map<String, double[]> before = filterTimes();
+		long[] latencies = new long[REQUESTS];
+		for (int i = 0; i < REQUESTS; i++) {
+			MockHttpServletRequest request = requests.get();
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			long begin = System.nanoTime();
+			filterChainProxy.doFilter(request, response, servlet);
+			latencies[i] = System.nanoTime() - begin;
+		}
+		Arrays.sort(latencies);
+		long p50 = latencies[REQUESTS / 2] / 1000;
+		long p99 = latencies[REQUESTS * 99 / 100] / 1000;
+		System.out.printf("%s: p50 %dus (budget %dus), p99 %dus%n", name, p50, BUDGET_MICROS, p99);
+
+		// 측정 구간의 필터별 평균 자기 시간 (샘플링된 요청만)
+		filterTimes().entrySet().stream()
+				.map(e -> {
+					double[] old = before.getOrDefault(e.getKey(), new double[2]);
+					double count = e.getValue()[1] - old[1];
+					return Map.entry(e.getKey(), count == 0 ? 0 : (e.getValue()[0] - old[0]) / count);
+				})
+				.filter(e -> e.getValue() > 0)
+				.sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+				.forEach(e -> System.out.printf("  %-45s %6.2fus%n", e.getKey(), e.getValue()));
+
+		assertThat(p50).as(name + " p50 (us)").isLessThanOrEqualTo(BUDGET_MICROS);
+	}
+
+	Map<String, double[]> filterTimes() {
+		Map<String, double[]> times = new HashMap<>();
+		for (Timer timer : registry.find("security.filter.time").timers()) {
+			times.put(timer.getId().getTag("filter"),
+					new double[] {timer.totalTime(TimeUnit.MICROSECONDS), timer.count()});
+		}
+		return times;
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.study.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+
+class FilterTimingDecoratorTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void recordExclusiveTime() throws Exception {
+		FilterTimingDecorator decorator = new FilterTimingDecorator(
+				new FilterChainProxy.VirtualFilterChainDecorator(), registry, 1);
+
+		FilterChain servlet = (request, response) -> sleep(100);
+		decorator.decorate(servlet, List.of(new SlowFilter(), new FastFilter()))
+				.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		// 다음 필터와 서블릿 시간은 빠진다
+		assertThat(time("SlowFilter")).isBetween(50.0, 95.0);
+		assertThat(time("FastFilter")).isLessThan(45.0);
+		assertThat(registry.get("security.filter-chain.time").timer().totalTime(TimeUnit.MILLISECONDS))
+				.isBetween(50.0, 95.0);
+	}
+
+	@Test
+	void skipUnsampledRequests() throws Exception {
+		FilterTimingDecorator decorator = new FilterTimingDecorator(
+				new FilterChainProxy.VirtualFilterChainDecorator(), registry, 0.5);
+
+		for (int i = 0; i < 1000; i++) {
+			decorator.decorate((request, response) -> {
+			}, List.of(new FastFilter())).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse());
+		}
+
+		long count = registry.get("security.filter.time").tag("filter", "FastFilter").timer().count();
+		assertThat(count).isBetween(350L, 650L);
+		assertThat(registry.get("security.filter-chain.time").timer().count()).isEqualTo(count);
+	}
+
+	double time(String filter) {
+		Timer timer = registry.get("security.filter.time").tag("filter", filter).timer();
+		assertThat(timer.count()).isEqualTo(1);
+		return timer.totalTime(TimeUnit.MILLISECONDS);
+	}
+
+	static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static class SlowFilter implements Filter {
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response,
+				FilterChain chain) throws IOException, ServletException {
+			sleep(50);
+			chain.doFilter(request, response);
+		}
+
+	}
+
+	static class FastFilter implements Filter {
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response,
+				FilterChain chain) throws IOException, ServletException {
+			chain.doFilter(request, response);
+		}
+
+	}
+
+}
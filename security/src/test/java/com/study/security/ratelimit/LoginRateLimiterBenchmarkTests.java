@@ -0,0 +1,80 @@
+package com.study.security.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 로그인 실패 1건 처리(추정 + 기록) 처리량. 키 500만 개(credential stuffing)와 키 1개(한 계정 집중 공격).
+ * 비교 대상: 키마다 카운터를 두는 ConcurrentHashMap (메모리가 키 수만큼 늘어남)
+ * ./gradlew test --tests '*LoginRateLimiterBenchmarkTests' -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginRateLimiterBenchmarkTests {
+
+	static final int THREADS = 8;
+	static final int OPERATIONS = 2_000_000;
+	static final int KEYS = 5_000_000;
+
+	@Test
+	void contention() throws Exception {
+		LoginRateLimiter limiter = new LoginRateLimiter(Duration.ofMinutes(1), 1 << 18);
+		ConcurrentHashMap<String, LongAdder> exact = new ConcurrentHashMap<>();
+
+		for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+			measure("sketch, " + KEYS + " keys", key -> {
+				limiter.estimate(key);
+				limiter.record(key);
+			}, KEYS);
+			measure("sketch, 1 key", key -> {
+				limiter.estimate(key);
+				limiter.record(key);
+			}, 1);
+			exact.clear();
+			measure("ConcurrentHashMap, " + KEYS + " keys", key -> {
+				LongAdder counter = exact.get(key);
+				if (counter != null) {
+					counter.sum();
+				}
+				exact.computeIfAbsent(key, k -> new LongAdder()).increment();
+			}, KEYS);
+			System.out.printf("  ConcurrentHashMap entries: %d%n", exact.size());
+		}
+	}
+
+	void measure(String name, Consumer<String> operation, int keys) throws Exception {
+		// 키 문자열 생성 비용은 빼고 측정
+		String[] keySpace = new String[Math.min(keys, OPERATIONS)];
+		for (int i = 0; i < keySpace.length; i++) {
+			keySpace[i] = "username:user" + ThreadLocalRandom.current().nextInt(keys);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		long begin = System.nanoTime();
+		for (int t = 0; t < THREADS; t++) {
+			int offset = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < OPERATIONS; i++) {
+					operation.accept(keySpace[(i * 31 + offset) % keySpace.length]);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long elapsed = System.nanoTime() - begin;
+		executor.shutdown();
+		System.out.printf("%s: %.1fM ops/s%n", name, THREADS * (double) OPERATIONS / elapsed * 1e3);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.study.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class LoginRateLimiterTests {
+
+	static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+	AtomicLong now = new AtomicLong(MINUTE * 100);
+
+	LoginRateLimiter limiter = new LoginRateLimiter(Duration.ofMinutes(1), 1 << 18, now::get);
+
+	@Test
+	void countPerKey() {
+		for (int i = 0; i < 5; i++) {
+			limiter.record("username:member1");
+		}
+		limiter.record("username:member2");
+
+		assertThat(limiter.estimate("username:member1")).isEqualTo(5);
+		assertThat(limiter.estimate("username:member2")).isEqualTo(1);
+		assertThat(limiter.estimate("username:member3")).isZero();
+	}
+
+	@Test
+	void slidingWindow() {
+		for (int i = 0; i < 10; i++) {
+			limiter.record("ip:127.0.0.1");
+		}
+
+		now.addAndGet(MINUTE); // 다음 윈도우 시작: 직전 윈도우가 전부 반영됨
+		assertThat(limiter.estimate("ip:127.0.0.1")).isEqualTo(10);
+		now.addAndGet(MINUTE / 2);
+		assertThat(limiter.estimate("ip:127.0.0.1")).isEqualTo(5);
+		limiter.record("ip:127.0.0.1");
+		assertThat(limiter.estimate("ip:127.0.0.1")).isEqualTo(6);
+
+		now.addAndGet(MINUTE / 2); // 처음 기록한 10번은 더 이상 반영되지 않음
+		assertThat(limiter.estimate("ip:127.0.0.1")).isEqualTo(1);
+		now.addAndGet(MINUTE * 2);
+		assertThat(limiter.estimate("ip:127.0.0.1")).isZero();
+
+		// 두 윈도우 전 칸에 남은 값은 무시하고 새로 센다
+		limiter.record("ip:127.0.0.1");
+		assertThat(limiter.estimate("ip:127.0.0.1")).isEqualTo(1);
+	}
+
+	@Test
+	void boundedErrorWithMillionsOfKeys() {
+		for (int i = 0; i < 2_000_000; i++) { // 키마다 한 번씩 실패 (credential stuffing)
+			limiter.record("username:user" + i);
+		}
+		for (int i = 0; i < 10; i++) {
+			limiter.record("username:target");
+		}
+
+		assertThat(limiter.estimate("username:target")).isGreaterThanOrEqualTo(10);
+		// 기록한 적 없는 키도 충돌 때문에 0이 아닐 수 있지만 제한(기본 10)보다 충분히 작아야 한다.
+		int blocked = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (limiter.estimate("username:fresh" + i) >= 10) {
+				blocked++;
+			}
+		}
+		assertThat(blocked).isZero();
+	}
+
+}
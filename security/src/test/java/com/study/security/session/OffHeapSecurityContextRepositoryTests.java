@@ -0,0 +1,137 @@
+package com.study.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+class OffHeapSecurityContextRepositoryTests {
+
+	AtomicLong now = new AtomicLong(1_000_000);
+
+	@Test
+	void saveAndLoad() throws Exception {
+		OffHeapSecurityContextRepository repository = repository(null, 100);
+
+		Cookie cookie = save(repository, "member1");
+		SecurityContext context = repository.loadDeferredContext(request(cookie)).get();
+
+		assertThat(context.getAuthentication().getName()).isEqualTo("member1");
+		assertThat(context.getAuthentication().getCredentials()).isNull();
+		assertThat(AuthorityUtils.authorityListToSet(context.getAuthentication().getAuthorities()))
+				.containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+		assertThat(repository.containsContext(request(new Cookie("SCTX", "0".repeat(31) + "1")))).isFalse();
+	}
+
+	@Test
+	void survivesRestart(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("contexts.bin");
+		OffHeapSecurityContextRepository repository = repository(file, 100);
+		Cookie cookie = save(repository, "member1");
+		repository.close();
+
+		OffHeapSecurityContextRepository restarted = repository(file, 100);
+		assertThat(restarted.loadDeferredContext(request(cookie)).get().getAuthentication().getName())
+				.isEqualTo("member1");
+		restarted.close();
+
+		// 크기가 바뀌면 이전 내용은 버린다
+		OffHeapSecurityContextRepository resized = repository(file, 1000);
+		assertThat(resized.containsContext(request(cookie))).isFalse();
+		resized.close();
+	}
+
+	@Test
+	void fileHoldsOnlyHashedIdsAndIsOwnerOnly(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("contexts.bin");
+		OffHeapSecurityContextRepository repository = repository(file, 100);
+		Cookie cookie = save(repository, "member1");
+		repository.close();
+
+		byte[] id = HexFormat.of().parseHex(cookie.getValue());
+		byte[] contents = Files.readAllBytes(file);
+		for (int i = 0; i + id.length <= contents.length; i++) {
+			assertThat(Arrays.equals(contents, i, i + id.length, id, 0, id.length)).as("offset %d", i)
+					.isFalse();
+		}
+		assumeTrue(file.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)))
+				.isEqualTo("rw-------");
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() throws Exception {
+		OffHeapSecurityContextRepository repository = repository(null, 8); // 버킷 1개
+
+		Cookie[] cookies = new Cookie[8];
+		for (int i = 0; i < 8; i++) {
+			now.incrementAndGet();
+			cookies[i] = save(repository, "member" + i);
+		}
+		now.incrementAndGet();
+		repository.loadDeferredContext(request(cookies[0])).get(); // 0번을 최근에 사용
+
+		now.incrementAndGet();
+		Cookie newest = save(repository, "member8");
+
+		assertThat(repository.containsContext(request(cookies[0]))).isTrue();
+		assertThat(repository.containsContext(request(cookies[1]))).isFalse();
+		assertThat(repository.containsContext(request(newest))).isTrue();
+	}
+
+	@Test
+	void idleTimeoutAndLogout() throws Exception {
+		OffHeapSecurityContextRepository repository = repository(null, 100);
+		Cookie idle = save(repository, "member1");
+		Cookie active = save(repository, "member2");
+
+		now.addAndGet(Duration.ofMinutes(20).toMillis());
+		assertThat(repository.containsContext(request(active))).isTrue(); // 접근하면 연장
+		now.addAndGet(Duration.ofMinutes(20).toMillis());
+		assertThat(repository.containsContext(request(idle))).isFalse();
+		assertThat(repository.containsContext(request(active))).isTrue();
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		repository.saveContext(new SecurityContextImpl(), request(active), response);
+		assertThat(response.getCookie("SCTX").getMaxAge()).isZero();
+		assertThat(repository.containsContext(request(active))).isFalse();
+	}
+
+	OffHeapSecurityContextRepository repository(Path file, int capacity) throws Exception {
+		return new OffHeapSecurityContextRepository(new SimpleMeterRegistry(), file, capacity, Duration.ofMinutes(30),
+				now::get);
+	}
+
+	static Cookie save(OffHeapSecurityContextRepository repository, String username) {
+		User user = new User(username, "password", AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+		SecurityContext context = new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(user, "password", user.getAuthorities()));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		repository.saveContext(context, new MockHttpServletRequest(), response);
+		return response.getCookie("SCTX");
+	}
+
+	static MockHttpServletRequest request(Cookie cookie) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(cookie);
+		return request;
+	}
+
+}
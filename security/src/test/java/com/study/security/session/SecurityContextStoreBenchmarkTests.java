@@ -0,0 +1,132 @@
+package com.study.security.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+/**
+ * 세션 20만 개를 유지한 상태에서의 힙 사용량과, 조회/재발급을 섞은 요청 처리 중의 GC 횟수와 시간.
+ * 비교 대상: HttpSession(힙)에 SecurityContext를 두는 기본 저장소
+ * ./gradlew test --tests '*SecurityContextStoreBenchmarkTests' -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SecurityContextStoreBenchmarkTests {
+
+	static final int SESSIONS = 200_000;
+	static final int REQUESTS = 2_000_000;
+
+	@Test
+	void heapAndGc() throws Exception {
+		// 힙 저장소: 컨테이너의 세션 맵 대신 배열로 세션을 붙잡아 둔다
+		HttpSessionSecurityContextRepository heap = new HttpSessionSecurityContextRepository();
+		MockHttpSession[] sessions = new MockHttpSession[SESSIONS];
+		measure("HttpSession", i -> {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.setSession(new MockHttpSession());
+			heap.saveContext(context(i), request, new MockHttpServletResponse());
+			sessions[i] = (MockHttpSession) request.getSession();
+			return 0;
+		}, i -> {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.setSession(sessions[i]);
+			return heap.loadDeferredContext(request).get().getAuthentication().getName().length();
+		});
+		Arrays.fill(sessions, null);
+
+		OffHeapSecurityContextRepository offHeap = new OffHeapSecurityContextRepository(new SimpleMeterRegistry(),
+				null, SESSIONS * 2, Duration.ofMinutes(30), System::currentTimeMillis);
+		// 쿠키는 클라이언트가 들고 있는 값이므로 힙 측정에 섞이지 않게 숫자로만 보관
+		long[] ids = new long[SESSIONS * 2];
+		measure("off-heap", i -> {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			if (ids[i * 2] != 0 || ids[i * 2 + 1] != 0) { // 재로그인이면 이전 세션은 지운다
+				request.setCookies(cookie(ids, i));
+			}
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			offHeap.saveContext(context(i), request, response);
+			String id = response.getCookie("SCTX").getValue();
+			ids[i * 2] = Long.parseUnsignedLong(id.substring(0, 16), 16);
+			ids[i * 2 + 1] = Long.parseUnsignedLong(id.substring(16), 16);
+			return 0;
+		}, i -> {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.setCookies(cookie(ids, i));
+			Authentication authentication = offHeap.loadDeferredContext(request).get().getAuthentication();
+			return authentication != null ? authentication.getName().length() : 0; // 버킷이 넘쳐 밀려난 세션
+		});
+		offHeap.close();
+	}
+
+	void measure(String name, IntFunction<Integer> create, IntUnaryOperator load) {
+		long heapBefore = usedHeap();
+		for (int i = 0; i < SESSIONS; i++) {
+			create.apply(i);
+		}
+		long heapAfter = usedHeap();
+
+		long[] gcBefore = gc();
+		long begin = System.nanoTime();
+		long sink = 0;
+		for (int r = 0; r < REQUESTS; r++) {
+			int i = ThreadLocalRandom.current().nextInt(SESSIONS);
+			if (r % 20 == 0) { // 5%는 로그인으로 세션 교체
+				create.apply(i);
+			} else {
+				sink += load.applyAsInt(i);
+			}
+		}
+		long elapsed = System.nanoTime() - begin;
+		long[] gcAfter = gc();
+		System.out.printf("%s: retained heap %.1fMB, %.2fM req/s, gc %d times %dms (sink %d)%n", name,
+				(heapAfter - heapBefore) / 1024.0 / 1024.0, REQUESTS / (elapsed / 1e3),
+				gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], sink);
+	}
+
+	static Cookie cookie(long[] ids, int i) {
+		return new Cookie("SCTX", HexFormat.of().toHexDigits(ids[i * 2]) + HexFormat.of().toHexDigits(ids[i * 2 + 1]));
+	}
+
+	static SecurityContext context(int i) {
+		User user = new User("user" + i, "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+		return new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+	}
+
+	static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	static long[] gc() {
+		long count = 0;
+		long time = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += bean.getCollectionCount();
+			time += bean.getCollectionTime();
+		}
+		return new long[] {count, time};
+	}
+
+}
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# 시작 시간 벤치마크: 모드별로 프로세스 시작부터 첫 요청 응답까지 걸린 시간과 그 시점의 RSS
+#
+#   ./startup-benchmark.sh security|querydsl [반복 횟수]
+#
+# 모드
+# - jar          : bootJar 그대로 (지금 배포 방식)
+# - lazy         : bootJar + lazy 프로필 (지연 초기화)
+# - cds          : build/cds 의 풀어 놓은 jar + CDS 아카이브
+# - aot+cds      : build/cds-aot 의 AOT 처리된 jar + CDS 아카이브
+# - aot+cds+lazy : 위 + lazy 프로필
+#
+# DB 접속 정보는 환경변수로 넘긴다. 예) SPRING_DATASOURCE_URL=jdbc:mysql://localhost:3306/test
+# 첫 요청은 인증 없이 / 를 호출한다. (응답 코드는 상관없음) 포트는 PORT 환경변수 (기본 18080)
+set -euo pipefail
+
+module=${1:?"usage: $0 security|querydsl [runs]"}
+runs=${2:-5}
+port=${PORT:-18080}
+cd "$(dirname "$0")/$module"
+
+./gradlew -q bootJar cdsArchive
+./gradlew -q cdsArchive -Paot
+boot_jar=$(ls build/libs/*.jar | grep -v -- '-plain' | head -1)
+
+results=$(mktemp)
+trap 'rm -f "$results"' EXIT
+
+# measure <모드> <작업 디렉터리> <java 인자...>
+measure() {
+  local mode=$1 dir=$2
+  shift 2
+  for ((i = 1; i <= runs; i++)); do
+    local begin pid elapsed rss
+    begin=$(date +%s%N)
+    (cd "$dir" && exec java -Dserver.port="$port" "$@" > /dev/null 2>&1) &
+    pid=$!
+    until curl -s -o /dev/null "http://localhost:$port/"; do
+      if ! kill -0 "$pid" 2> /dev/null; then
+        echo "$mode: 시작 실패 (cd $dir && java $*)" >&2
+        return 1
+      fi
+      sleep 0.01
+    done
+    elapsed=$((($(date +%s%N) - begin) / 1000000))
+    rss=$(($(ps -o rss= -p "$pid") / 1024))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$mode $i: ${elapsed}ms, ${rss}MB" >&2
+    echo "$mode $elapsed $rss" >> "$results"
+  done
+}
+
+measure jar . -jar "$boot_jar"
+measure lazy . -jar "$boot_jar" --spring.profiles.active=lazy
+measure cds build/cds -XX:SharedArchiveFile=app.jsa -jar app.jar
+measure aot+cds build/cds-aot -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar
+measure aot+cds+lazy build/cds-aot -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar \
+  --spring.profiles.active=lazy
+
+# 모드별 중앙값
+echo
+printf '%-14s %18s %10s\n' mode time-to-first-req rss
+for mode in jar lazy cds aot+cds aot+cds+lazy; do
+  elapsed=$(awk -v m="$mode" '$1 == m {print $2}' "$results" | sort -n | awk '{a[NR] = $1} END {print a[int((NR + 1) / 2)]}')
+  rss=$(awk -v m="$mode" '$1 == m {print $3}' "$results" | sort -n | awk '{a[NR] = $1} END {print a[int((NR + 1) / 2)]}')
+  printf '%-14s %16sms %8sMB\n' "$mode" "$elapsed" "$rss"
+done